@@ -9,7 +9,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
 @EnableScheduling
 @MapperScan(basePackages = {"com.example.demo.api.keyword.work", "com.example.demo.api.keyword.backup",
-"com.example.demo.api.keyword.category", "com.example.demo.api.keyword.rank"})
+"com.example.demo.api.keyword.category", "com.example.demo.api.keyword.rank",
+"com.example.demo.api.keyword.resolution"})
 @EnableJpaRepositories
 public class DemoApplication {
 
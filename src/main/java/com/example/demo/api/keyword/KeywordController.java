@@ -1,5 +1,6 @@
 package com.example.demo.api.keyword;
 
+import com.example.demo.api.keyword.ledger.LedgerReader;
 import com.example.demo.api.keyword.work.Work;
 import com.example.demo.api.keyword.work.WorkService;
 import com.example.demo.api.queue.producer.ProduceService;
@@ -9,18 +10,18 @@ import com.example.demo.common.util.DateUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -88,23 +89,24 @@ public class KeywordController {
             throw new IOException("엑셀파일만 업로드 해주세요.");
         }
 
-        Workbook workbook;
-        if (excelExtension.equals("xlsx")||excelExtension.equals("xlsm"))
-            workbook = new XSSFWorkbook(file.getInputStream());
-        else
-            workbook = new HSSFWorkbook(file.getInputStream());
-
+        //업로드 바이트를 그대로 디스크에 저장 (워크북 파싱/재작성 없음)
         File excelFile = new File(REMOTE_INPUT_FILE_PATH+fileHashcode+filename);
         try {
-            FileOutputStream fos = new FileOutputStream(excelFile);
-            workbook.write(fos);
-            workbook.close();
-            fos.close();
+            file.transferTo(excelFile.toPath());
         }catch (Exception e){
             log.error(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
 
+        //파일 시그니처 + 헤더 행 확인
+        try {
+            LedgerReader.probe(excelFile, excelExtension);
+        } catch (IOException e) {
+            log.warn("잘못된 엑셀파일 : {} ({})", filename, e.getMessage());
+            Files.deleteIfExists(excelFile.toPath());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
         log.info("수신 받은 엑셀파일을 올린 부분 ");
 
         Work work = new Work();
@@ -128,9 +130,10 @@ public class KeywordController {
     }
 
     //파일 다운로드 
+    //Range 요청은 ResourceRegion 으로 부분 전송 (206), ETag(파일 크기+수정시간)가 같으면 304
     //TODO file path 처리 (유저)
     @GetMapping("/file")
-    public ResponseEntity<Void> getExcelFile(HttpServletResponse response, @RequestParam("filename")String filename){
+    public ResponseEntity<Resource> getExcelFile(@RequestParam("filename")String filename){
         try {
             Path filePath = Paths.get(REMOTE_RESULT_FILE_PATH).resolve(filename).normalize();
 
@@ -154,25 +157,17 @@ public class KeywordController {
                 mimeType = "application/octet-stream"; // 기본 MIME 타입
             }
 
-            response.setContentType(mimeType);
-            response.setHeader("Content-Transfer-Encoding", "binary;");
-            response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
-
-            // 파일 읽기 및 전송 (try-with-resources 사용)
-            try (FileInputStream fis = new FileInputStream(file);
-                 OutputStream os = response.getOutputStream()) {
-
-                byte[] buffer = new byte[512];
-                int count;
-                while ((count = fis.read(buffer)) != -1) {
-                    os.write(buffer, 0, count);
-                }
-                os.flush();
-            }
-
-            log.info("File successfully downloaded: {}", filePath);
-
-            return ResponseEntity.ok().build();
+            long lastModified = file.lastModified();
+            String eTag = "\"" + Long.toHexString(file.length()) + "-" + Long.toHexString(lastModified) + "\"";
+
+            // Content-Length, Range(206/416), If-None-Match(304) 는 spring 에서 처리
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(mimeType))
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .body(new FileSystemResource(file));
         } catch (IOException e) {
             log.error("Error while processing file download: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
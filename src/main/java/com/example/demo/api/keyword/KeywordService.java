@@ -1,48 +1,47 @@
 package com.example.demo.api.keyword;
 
 
-import com.example.demo.api.keyword.apicount.ApiCountService;
+import com.example.demo.api.keyword.apicount.NaverCredential;
+import com.example.demo.api.keyword.apicount.NaverCredentialPool;
 import com.example.demo.api.keyword.backup.Backup;
 import com.example.demo.api.keyword.backup.BackupService;
-import com.example.demo.api.keyword.category.CategoryKeyword;
+import com.example.demo.api.keyword.ledger.LedgerBatch;
+import com.example.demo.api.keyword.ledger.LedgerReader;
+import com.example.demo.api.keyword.trademark.KiprisResponseReader;
+import com.example.demo.api.keyword.trademark.TrademarkCheck;
+import com.example.demo.api.keyword.trademark.TrademarkIndexService;
+import com.example.demo.api.keyword.trademark.TrademarkVerdict;
+import com.example.demo.api.keyword.trademark.TrademarkVerdictCache;
 import com.example.demo.api.keyword.work.Work;
 import com.example.demo.api.status.Status;
+import com.example.demo.api.status.StatusProgressReporter;
 import com.example.demo.api.status.StatusService;
-import com.example.demo.common.util.ApiDataUtil;
+import com.example.demo.common.http.ApiHttpClient;
 import com.example.demo.common.util.DateUtil;
 import com.example.demo.common.util.Signatures;
+import com.example.demo.common.ratelimit.CrawlGovernor;
+import com.example.demo.common.ratelimit.RateLimiter;
+import com.example.demo.common.ratelimit.RateLimiterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.hssf.usermodel.*;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StopWatch;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
@@ -53,23 +52,25 @@ public class KeywordService {
 
     private final BackupService backupService;
 
-    private final ApiCountService apiCountService;
+    private final NaverCredentialPool naverCredentialPool;
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    private final ApiHttpClient apiHttpClient;
+
+    private final TrademarkVerdictCache trademarkVerdictCache;
+
+    private final TrademarkIndexService trademarkIndexService;
+
+    private final CrawlGovernor crawlGovernor;
+
+    //키워드도구 api 한번에 조회할 수 있는 최대 키워드 수
+    public static final int KEYWORDS_TOOL_MAX_HINTS = 5;
 
     //키프리스 api
     @Value("${open-api.kipris.access-key}")
     private String ACCESS_KEY;//키프리스 api key
 
-    //네이버 쇼핑 api
-    @Value("${open-api.naver.search-shop.client-id}")
-    private String SHOP_CLIENT_ID;
-    @Value("${open-api.naver.search-shop.client-secret}")
-    private String SHOP_CLIENT_SECRET;
-
-    @Value("${open-api.naver.search-shop.client-id2}")
-    private String SHOP_CLIENT_ID2;
-    @Value("${open-api.naver.search-shop.client-secret2}")
-    private String SHOP_CLIENT_SECRET2;
-
 
     //네이버 쇼핑 api
     @Value("${open-api.naver.search-ad.customer-id}")
@@ -79,309 +80,150 @@ public class KeywordService {
     @Value("${open-api.naver.search-ad.secret-key}")
     private String AD_SECRET_KEY;
 
-    @Value("${keyword-service.filter.crawling.interval}")
-    private int CRAWLING_INTERVAL;
-
     @Value("${spring.file.upload-dir.input}")
     private String REMOTE_INPUT_FILE_PATH;
 
     @Value("${spring.file.upload-dir.result}")
     private String REMOTE_RESULT_FILE_PATH;
 
+    //원장 읽기 중 한번에 저장할 행 수
+    @Value("${keyword-service.backup.insert-chunk-size:500}")
+    private int INSERT_CHUNK_SIZE;
+
+    //결과 엑셀 생성시 메모리에 유지할 행 수
+    @Value("${keyword-service.result-excel.row-window:200}")
+    private int RESULT_EXCEL_ROW_WINDOW;
+
     //기본 키워드 찾기(api)
     public String findStandardKeyword(String productName) throws Exception{
 
-        Thread.sleep(150);
         productName = URLEncoder.encode(productName, "UTF-8");
 
         String apiUrl = "https://openapi.naver.com/v1/search/shop?display=" + 10 + "&query=" + productName;
-        URL url = new URL(apiUrl);
-        HttpURLConnection httpURLConnection = (HttpURLConnection) url.openConnection();
-        httpURLConnection.setRequestMethod("GET");
-
-        if(apiCountService.getApiCountById(1).getUseCount() < 25000){
-            httpURLConnection.setRequestProperty("X-Naver-Client-Id", SHOP_CLIENT_ID);
-            httpURLConnection.setRequestProperty("X-Naver-Client-Secret", SHOP_CLIENT_SECRET);
-        }else{
-            httpURLConnection.setRequestProperty("X-Naver-Client-Id", SHOP_CLIENT_ID2);
-            httpURLConnection.setRequestProperty("X-Naver-Client-Secret", SHOP_CLIENT_SECRET2);
-        }
-
-        String resultLine = ApiDataUtil.getApiData(httpURLConnection);
-
-        log.info("resultLine: >>>>>>>>>>>>>>>>"  + resultLine);
-
-        JSONParser parser = new JSONParser();
-        JSONObject result = (JSONObject) parser.parse(resultLine);
-        //if((JSONArray) result.get("errorCdoe"))
-
-        JSONArray items = (JSONArray) result.get("items");
 
+        //사용량이 가장 적은 인증정보 사용 (일일 사용량 집계)
+        NaverCredential credential = naverCredentialPool.acquire();
 
+        //1초에 검색 10회 제한
+        rateLimiterRegistry.get(RateLimiterRegistry.NAVER_SHOP, credential.clientId()).acquire();
 
-        ObjectMapper mapper = new ObjectMapper();
-        List<NaverShopData> resultList = null;
-
-        // items가 null일 경우 예외처리
-        try{
-            resultList = mapper.readValue(items.toString(), new TypeReference<List<NaverShopData>>() {});
-        }catch (IOException e){
-            return null;
-        }
-
-        if(resultList.get(0).getCategory1().equals("")){
-            //대분류 카테고리가 없는 경우는 오류 상황으로 처리
-            throw new Exception();
-        }
-
-        String category = resultList.get(0).getCategory1() + ">";
-
-
-        if(!resultList.get(0).getCategory2().equals("")){
-            category += (resultList.get(0).getCategory2() + ">");
-        }
-        if(!resultList.get(0).getCategory3().equals("")){
-            category += (resultList.get(0).getCategory3() + ">");
-        }
-        if(!resultList.get(0).getCategory4().equals("")){
-            category += (resultList.get(0).getCategory4() + ">");
+        //첫번째 상품의 카테고리만 읽음
+        try (InputStream body = apiHttpClient.get(apiUrl, Map.of(
+                "X-Naver-Client-Id", credential.clientId(),
+                "X-Naver-Client-Secret", credential.clientSecret()))) {
+            return NaverResponseParser.firstItemCategoryPath(body);
         }
-
-        category = category.substring(0,category.length()-1);
-
-        return category;
     }
 
-    //기본 키워드 + catId 찾기(크롤링)
-    public HashMap<String, String> findStandardKeyword(String productName, int recursiveCount) throws Exception {
-
-        //throw 테스트
-        if (recursiveCount == 10) {
-            throw new Exception();
-        }
-
-        String url = String.format(
-                "https://shopping.naver.com/search/all?query=%s",
-                URLEncoder.encode(productName, "UTF-8"));
-
-        org.jsoup.nodes.Document document = Jsoup.connect(url)
-                .header("user-agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/92.0.4515.131 Safari/537.36")
-                .get();
-
-        Thread.sleep(CRAWLING_INTERVAL);
-
-        //비정상접근 체크
-        Elements checkInvalidConnection = document.select(".style_head__2HGCm");
-        if (checkInvalidConnection.size() != 0) {
-
-            Thread.sleep(3000);
-            log.info("기본 카테고리를 찾는 중 비정상접근 입니다.");
-            return findStandardKeyword(productName, recursiveCount + 1);
-        }
-
-        Elements adElements = document.select(".ad_ad_stk__12U34");
-
-        int categoryIndex;
-        if (adElements.size() == 0) {
-            //광고 x
-            categoryIndex = 0;
+    //크롤링 요청 실패 : 403/429 는 차단, 그 외(네트워크 오류 등)는 알 수 없는 실패로 pacer 에 알림
+    private void reportCrawlFailure(IOException e) {
+        if (e instanceof HttpStatusException statusException
+                && (statusException.getStatusCode() == 403 || statusException.getStatusCode() == 429)) {
+            crawlGovernor.onBlocked();
         } else {
-            //광고 o
-            categoryIndex = 3;
+            crawlGovernor.onError();
         }
-
-        Elements elements = document.select(".basicList_depth__2QIie");
-        Element element = elements.get(categoryIndex);
-
-        Elements children = element.children();
-        Element resultElement = children.get(children.size() - 1);
-
-
-        String standardKeyword = resultElement.text();
-
-        //공백 제거
-        standardKeyword = standardKeyword.replaceAll(" ", "");
-        standardKeyword = standardKeyword.replaceAll("\\p{Z}", "");
-        standardKeyword = standardKeyword.replaceAll("(^\\p{Z}+|\\p{Z}+$)", "");
-
-        String catIdUrl = resultElement.attr("href");
-        String[] splitCatIdUrl = catIdUrl.split("=");
-
-        String catId = splitCatIdUrl[1];
-
-        ///////////////필요한 두가지 값 추출
-        HashMap<String, String> resultMap = new HashMap<>();
-        resultMap.put("standardKeyword", standardKeyword);
-        resultMap.put("catId", catId);
-
-        return resultMap;
     }
 
-    //판매자수 조건 체크(네이버 api)
-    public boolean isAppropriateSellerCount(String relKeyword, int sellerCountMin, int sellerCountMax) throws Exception {
-        //1초에 검색 10회 제한 딜레이
-        Thread.sleep(150);
-
-        relKeyword = URLEncoder.encode(relKeyword, "UTF-8");
-
-        String apiUrl = "https://openapi.naver.com/v1/search/shop?query=" + relKeyword;
-        URL url = new URL(apiUrl);
-        HttpURLConnection httpURLConnection = (HttpURLConnection) url.openConnection();
-        httpURLConnection.setRequestMethod("GET");
-        httpURLConnection.setRequestProperty("X-Naver-Client-Id", "JMsIHUXjaJ09gFblq07w");
-        httpURLConnection.setRequestProperty("X-Naver-Client-Secret", "htyaWCZ_g0");
-
-        String resultLine = ApiDataUtil.getApiData(httpURLConnection);
-
-        JSONParser jsonParser = new JSONParser();
-        JSONObject result = (JSONObject) jsonParser.parse(resultLine);
-        Long totalValue = (Long) result.get("total");
-
-        return totalValue > sellerCountMin && totalValue <= sellerCountMax;
-    }
-
-    //네이버 검색순위 가져오기
-    //TODO start,enddate 어떻게할지 결정해야함
-    //TODO 비정상접근 떠서 에러처리나는 경우 예외처리해야함
-    public List<String> getkeywordRank(String cid) throws Exception {
+    //네이버 쇼핑인사이트 분야별 인기검색어 한 페이지 (페이지당 20개)
+    //비정상접근 등으로 응답이 json 이 아니면 공유 pacer 에 차단으로 알리고 IOException
+    public List<String> getKeywordRankPage(String cid, LocalDate startDate, LocalDate endDate, int page) throws Exception {
         String url = "https://datalab.naver.com/shoppingInsight/getCategoryKeywordRank.naver";
-        List<String> resultList = new ArrayList<>();
 
         Map<String, String> map = new HashMap<>();
         map.put("cid", cid);
         map.put("timeUnit", "date");
-        map.put("startDate", "2021-07-17");
-        map.put("endDate", "2021-08-17");
+        map.put("startDate", startDate.toString());
+        map.put("endDate", endDate.toString());
         map.put("count", "20");
         map.put("age", "");
         map.put("gender", "");
         map.put("device", "");
+        map.put("page", String.valueOf(page));
 
-        for (int i = 1; i <= 25; i++) {
-
-            Thread.sleep(CRAWLING_INTERVAL);
-
-            map.put("page", String.valueOf(i));
+        crawlGovernor.acquire();
 
-            org.jsoup.nodes.Document document = Jsoup.connect(url)
+        Connection.Response response;
+        try {
+            response = Jsoup.connect(url)
                     .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/92.0.4515.131 Safari/537.36")
                     .header("Referer", "https://datalab.naver.com/shoppingInsight/sCategory.naver")
                     .header("Content-Type", "application/x-www-form-urlencoded")
+                    .ignoreContentType(true)
+                    .method(Connection.Method.POST)
                     .data(map)
-                    .post();
-
-            //TODO 비정상접근 떠서 에러처리나는 경우 예외처리해야함
-            String resultJsonStr = document.body().text();
-            JSONParser parser = new JSONParser();
-
-            //json 파싱
-            JSONArray jsonArray = (JSONArray) ((JSONObject) parser.parse(resultJsonStr)).get("ranks");
-
-            for (Object obj : jsonArray) {
-                JSONObject jsonObject = (JSONObject) obj;
-                resultList.add((String) jsonObject.get("keyword"));
-            }
-            map.remove("page");
-        }
-
-        return resultList;
-    }
-
-    //적합 키워드 체크 키프리스 없이(테스트용)
-    //적합 키워드 체크
-    public String isValidKeywordWithoutKipris(CategoryKeyword categoryKeyword, int sellerCountMin, int sellerCountMax, int adSearchCount) {
-        String relKeyword = categoryKeyword.getKeyword();
-
-        try {
-            if (this.checkValidValue(categoryKeyword, sellerCountMin, sellerCountMax,adSearchCount)) {
-                return "적합";
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "부적합";
+                    .execute();
+        } catch (IOException e) {
+            reportCrawlFailure(e);
+            throw e;
         }
-        return "부적합";
-    }
-
-    //적합 키워드 체크
-    public String isValidKeyword(CategoryKeyword categoryKeyword, int sellerCountMin, int sellerCountMax, int adSearchCount) {
-        String relKeyword = categoryKeyword.getKeyword();
 
+        List<String> keywords;
         try {
-            log.info("현재 체크중인 relkeyword >>> " + relKeyword);
-            org.w3c.dom.Element kiprisResponse = getKiprisResponse(relKeyword);
-            String resultCode = kiprisResponse.getElementsByTagName("resultCode").item(0).getTextContent();
-            String resultCount = kiprisResponse.getElementsByTagName("TotalSearchCount").item(0).getTextContent();
-
-            if (resultCode.equals("22")) {//키프리스 api 사용초과시 정지
-                return "사용정지";
-            } else if (resultCount.equals("0")) {//TODO 사용중이지 않은 특허의 totalSearchCount가 0인지 체크해봐야함
-                if (this.checkValidValue(categoryKeyword, sellerCountMin, sellerCountMax,adSearchCount)) return "적합";
-                else return "부적합";
-            } else {
-                return "부적합";
-            }
-
-        } catch (Exception e) {
-            log.info("키프리스 응답 파싱 오류 체크 >>> "+e.getMessage());
-            e.printStackTrace();
-            return "부적합";
+            keywords = NaverResponseParser.rankKeywords(new ByteArrayInputStream(response.bodyAsBytes()));
+        } catch (IOException e) {
+            crawlGovernor.onBlocked();
+            log.info("인기검색어 조회 중 비정상접근 입니다. cid : {}, page : {}", cid, page);
+            throw e;
         }
+        crawlGovernor.onSuccess();
+        return keywords;
     }
 
-    //유효성 체크(검색량, 판매자수)
-    public boolean checkValidValue(CategoryKeyword categoryKeyword,int sellerCountMin,int sellerCountMax,int adSearchCount) throws Exception{
-        int sellerCount = categoryKeyword.getSellStoreCount();
-        int searchCount = categoryKeyword.getMonthlyMobileQcCnt() + categoryKeyword.getMonthlyPcQcCnt();
-
-        if(sellerCountMin <= sellerCount && sellerCount <= sellerCountMax){
-            return searchCount > adSearchCount;
-        }else {
-            return false;
+    //네이버 광고 api 키워드도구 (hintKeywords 는 한번에 최대 5개, 공백 제거)
+    //결과에는 hintKeywords 자신과 연관 키워드가 함께 포함된다
+    public List<NaverKeywordMetric> getKeywordMetrics(Collection<String> hintKeywords) throws Exception {
+        if (hintKeywords.isEmpty() || hintKeywords.size() > KEYWORDS_TOOL_MAX_HINTS) {
+            throw new IllegalArgumentException("hintKeywords 는 1~" + KEYWORDS_TOOL_MAX_HINTS + "개 : " + hintKeywords.size());
         }
-    }
-
-    //네이버 광고 api 검색수 필터링
-    public List<String> getRelKeyword(String standardKeyword, int adSearchCount) throws Exception {
 
         String baseUrl = "https://api.naver.com";
         String apiUrl = "/keywordstool";
         Long timestamp = DateUtil.getUnixTimestamp();
         String data = timestamp + "." + "GET" + "." + apiUrl;
 
-        String param = String.format("hintKeywords=%s&showDetail=1", URLEncoder.encode(standardKeyword, "UTF-8"));
-        URL url = new URL(baseUrl + apiUrl + "?" + param);
-        HttpURLConnection httpURLConnection = (HttpURLConnection) url.openConnection();
-        httpURLConnection.setRequestProperty("X-Timestamp", String.valueOf(timestamp));
-        httpURLConnection.setRequestProperty("X-Customer", AD_CUSTOMER_ID);
-        httpURLConnection.setRequestProperty("X-API-KEY", AD_API_KEY);
-        httpURLConnection.setRequestProperty("X-Signature", Signatures.encode(data, AD_SECRET_KEY));
-        httpURLConnection.setRequestMethod("GET");
-
-        String resultLine = ApiDataUtil.getApiData(httpURLConnection);
-        NaverKeywordResp<List<NaverKeyword>> result;
-        ObjectMapper mapper = new ObjectMapper();
-        result = mapper.readValue(resultLine, new TypeReference<NaverKeywordResp<List<NaverKeyword>>>() {
-        });
-
-        List<NaverKeyword> dataList = result.getKeywordList();
-        List<String> keywordList = new ArrayList<>();
+        StringJoiner hints = new StringJoiner(",");
+        for (String hintKeyword : hintKeywords) {
+            hints.add(hintKeyword.replaceAll("\\s+", ""));
+        }
+        String param = String.format("hintKeywords=%s&showDetail=1", URLEncoder.encode(hints.toString(), "UTF-8"));
+        rateLimiterRegistry.get(RateLimiterRegistry.NAVER_SEARCH_AD, AD_CUSTOMER_ID).acquire();
+
+        try (InputStream body = apiHttpClient.get(baseUrl + apiUrl + "?" + param, Map.of(
+                "X-Timestamp", String.valueOf(timestamp),
+                "X-Customer", AD_CUSTOMER_ID,
+                "X-API-KEY", AD_API_KEY,
+                "X-Signature", Signatures.encode(data, AD_SECRET_KEY)))) {
+            return NaverResponseParser.keywordMetrics(body);
+        }
+    }
 
-        //검색량 필터링
-        for (NaverKeyword naverKeyword : dataList) {
-            if (naverKeyword.getMonthlyPcQcCnt().equals("< 10"))
-                naverKeyword.setMonthlyPcQcCnt("0");
-            if (naverKeyword.getMonthlyMobileQcCnt().equals("< 10"))
-                naverKeyword.setMonthlyMobileQcCnt("0");
+    //상표 검색 (오프라인 인덱스 -> 캐시 -> 키프리스)
+    public TrademarkCheck checkTrademark(String relKeyword) throws Exception {
+        //인덱스에 사용중인 상표가 있으면 키프리스를 호출하지 않음
+        if (trademarkIndexService.isKnownRegistered(relKeyword)) {
+            return new TrademarkCheck(TrademarkVerdict.fromIndex(relKeyword), TrademarkCheck.Source.INDEX);
+        }
 
-            if ((Integer.parseInt(naverKeyword.getMonthlyMobileQcCnt()) + Integer.parseInt(naverKeyword.getMonthlyPcQcCnt())) >= adSearchCount)
-                keywordList.add(naverKeyword.getRelKeyword());
+        TrademarkVerdict cached = trademarkVerdictCache.get(relKeyword);
+        if (cached != null) {
+            return new TrademarkCheck(cached, TrademarkCheck.Source.CACHE);
         }
 
-        return keywordList;
+        TrademarkVerdict verdict = requestTrademarkVerdict(relKeyword);
+        trademarkIndexService.recordKiprisVerdict(verdict);
+        trademarkVerdictCache.put(verdict);
+        return new TrademarkCheck(verdict, TrademarkCheck.Source.KIPRIS);
     }
 
-    public org.w3c.dom.Element getKiprisResponse(String relKeyword) throws Exception {
+    //키프리스 api rate limiter
+    //access key 는 metric tag 에 노출되지 않도록 hash 값으로 구분
+    public RateLimiter kiprisRateLimiter() {
+        return rateLimiterRegistry.get(RateLimiterRegistry.KIPRIS, Integer.toHexString(ACCESS_KEY.hashCode()));
+    }
+
+    //키프리스 상표명 일치 검색 (응답은 StAX 로 필요한 필드만 읽음)
+    public TrademarkVerdict requestTrademarkVerdict(String relKeyword) throws Exception {
         String baseUrl = "http://plus.kipris.or.kr/openapi/rest/trademarkInfoSearchService";
 
         String apiUrl = "/trademarkNameMatchSearchInfo";
@@ -390,205 +232,150 @@ public class KeywordService {
 
         String param = String.format("trademarkNameMatch=%s&accessKey=%s&refused=%s&expiration=%s&withdrawal=%s&cancel=%s&abandonment=%s",
                 URLEncoder.encode(relKeyword), URLEncoder.encode(ACCESS_KEY), URLEncoder.encode("false"), URLEncoder.encode("false"), URLEncoder.encode("false"), URLEncoder.encode("false"), URLEncoder.encode("false"));
-        URL url = new URL(baseUrl + apiUrl + "?" + param);
-
-        HttpURLConnection httpURLConnection = (HttpURLConnection) url.openConnection();
-        httpURLConnection.setRequestProperty("X-Timestamp", String.valueOf(timestamp));
-        httpURLConnection.setRequestMethod("GET");
-
-        String resultLine = ApiDataUtil.getApiData(httpURLConnection);
-
-        log.info("키프리스 응답 xml 데이터 >>>> " + resultLine);
 
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder documentBuilder = factory.newDocumentBuilder();
-        InputStream is = new ByteArrayInputStream(resultLine.getBytes());
-        Document doc = documentBuilder.parse(is);
+        kiprisRateLimiter().acquire();
 
-        return doc.getDocumentElement();
+        try (InputStream body = apiHttpClient.get(baseUrl + apiUrl + "?" + param,
+                Map.of("X-Timestamp", String.valueOf(timestamp)))) {
+            return KiprisResponseReader.read(relKeyword, body);
+        }
     }
 
     //엑셀 데이터를 객체로 변환
-    public List<Backup> excelToObject(String path, int workId) throws Exception {
+    //원장을 이벤트 방식으로 한 행씩 읽어 chunk 단위로 바로 저장 (워크북 전체를 메모리에 올리지 않음)
+    //저장이 끝난 행 묶음마다 onInserted 로 알리고, 전체 행 수를 반환
+    public int excelToObject(String path, int workId, Consumer<LedgerBatch> onInserted) throws Exception {
 
         File excelFile = new File(path);
 
         String excelExtension = FilenameUtils.getExtension(excelFile.getName());
-        System.out.println("확장자 : " + excelExtension);
+        log.info("확장자 : " + excelExtension);
 
         if (!excelExtension.equals("xlsx") && !excelExtension.equals("xls") && !excelExtension.equals("xlsm")) {
             throw new IOException("엑셀파일만 업로드 해주세요.");
         }
 
-        FileInputStream inputStream = new FileInputStream(path);
-
-        Workbook workbook;
-        int workSheetLength;
-
-        if (excelExtension.equals("xlsx") || excelExtension.equals("xlsm")) {
-            workbook = new XSSFWorkbook(inputStream);
-        } else {
-            workbook = new HSSFWorkbook(inputStream);
-
-        }
-
-        Sheet workSheet = workbook.getSheetAt(0);
-        workSheetLength = workSheet.getPhysicalNumberOfRows();
-
-        //xls일 경우 최대 열 65535 제한 예외처리
-        if (excelExtension.equals("xls") && workSheetLength >= 65535) {
-            workSheetLength = 65534;
-        }
-
-        List<Backup> backupList = new ArrayList<>();
-
-        int productIndex;
-        int productNoIndex;
-
-        //형식에 따른 indexing
-        if (workSheet.getRow(0).getPhysicalNumberOfCells() == 2) {
-            productNoIndex = 0;
-            productIndex = 1;
-        } else {
-            productNoIndex = 13;
-            productIndex = 14;
-        }
+        int[] rowCount = {0};
+        List<Backup> pending = new ArrayList<>(INSERT_CHUNK_SIZE);
 
         //엑셀 데이터 변환 및 리스트로 저장(상품명 , 상품번호)
-        for (int i = 1; i < workSheetLength; i++) {
-
-            Row row = workSheet.getRow(i);
-
-            if (row != null) {
-                Cell productCell;
-                Cell productNoCell;
-                String productNo;
-                String product;
-
-                try {
-                    productCell = row.getCell(productIndex);
-                    productNoCell = row.getCell(productNoIndex);
-
-                    //상품번호 변경
-                    product = productCell.getStringCellValue();
-                    //GS원장과 기존원장 형식 분리
-                    if(productNoIndex == 0){
-                        //셀 자체를 stringcell로 변환하여 출력
-                        productNoCell.setCellType(CellType.STRING);
-                        productNo = String.valueOf(productNoCell.getStringCellValue());
-                    }else{
-                        productNo = String.valueOf(productNoCell.getStringCellValue());
-                    }
-                    //productNo = productNo.replaceAll("\\.", "");
-                    // 원장 번호 수정 방식
-                    /*productNo = productNo.substring(0, productNo.length() - 3);
-                    productNo = "8" + productNo;*/
-
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    product = "필수값부족";
-                    productNo = "필수값부족";
-                }
-                log.info("상품명 >>>> " + product);
-                log.info("상품번호 >>>> " + productNo);
-
-                //ValidKeyword 및 backup 객체 생성
-                Backup backup = new Backup();
-                backup.setProduct(product);
-                backup.setProductNo(productNo);
-                backup.setWorkId(workId);
-                backup.setExcelIndex(i);
-                backup.setStatusCode(1);
-                backup.setValidKeyword("");
-                backup.setKeywordList("");
-                backup.setCategory("");
-                backupService.insertBackup(backup);
-
-                backupList.add(backup);
+        LedgerReader.read(excelFile, excelExtension, ledgerRow -> {
+            String product = ledgerRow.product();
+            String productNo = ledgerRow.productNo();
+            if (!ledgerRow.hasRequiredValues()) {
+                product = "필수값부족";
+                productNo = "필수값부족";
             }
+            log.info("상품명 >>>> " + product);
+            log.info("상품번호 >>>> " + productNo);
+
+            //ValidKeyword 및 backup 객체 생성
+            Backup backup = new Backup();
+            backup.setProduct(product);
+            backup.setProductNo(productNo);
+            backup.setWorkId(workId);
+            backup.setExcelIndex(ledgerRow.excelIndex());
+            backup.setStatusCode(1);
+            backup.setValidKeyword("");
+            backup.setKeywordList("");
+            backup.setCategory("");
+
+            rowCount[0]++;
+            pending.add(backup);
+
+            //chunk 단위 multi-row insert (생성된 id는 각 backup 에 설정됨)
+            if (pending.size() >= INSERT_CHUNK_SIZE) {
+                insertLedgerBatch(pending, onInserted);
+            }
+        });
+        if (!pending.isEmpty()) {
+            insertLedgerBatch(pending, onInserted);
         }
-        return backupList;
+        return rowCount[0];
+    }
+
+    private void insertLedgerBatch(List<Backup> pending, Consumer<LedgerBatch> onInserted) {
+        backupService.insertBackups(pending);
+        LedgerBatch batch = new LedgerBatch(pending.size(),
+                pending.get(0).getExcelIndex(), pending.get(pending.size() - 1).getExcelIndex());
+        pending.clear();
+        onInserted.accept(batch);
     }
 
 
     //최종 결과 엑셀 생성
     public String makeResultExcel(String filename, Status status, int workId) throws Exception {
 
-        List<Backup> backupList = backupService.getBackupsByWorkId(workId);
-
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
+        String downloadName = DateUtil.getCurrentDate() +
+                filename + ".xlsx";
+        String path = REMOTE_RESULT_FILE_PATH + downloadName;
+
         //////Workbook으로 변환 작업
-        XSSFWorkbook workbook = new XSSFWorkbook();
-        XSSFSheet sheet = workbook.createSheet("유효키워드 추출결과");
-
-        XSSFRow navRow = sheet.createRow(0);
-
-        //컬럼명 생성
-        navRow.createCell(0).setCellValue("상품명");
-        navRow.createCell(1).setCellValue("상품번호");
-        navRow.createCell(2).setCellValue("카테고리 변경전");
-        navRow.createCell(3).setCellValue("카테고리 변경후");
-        navRow.createCell(4).setCellValue("대표키워드");
-        for(int i=1;i<=5;i++){
-            navRow.createCell(i+4).setCellValue("유효키워드"+i);
-        }
+        //SXSSF : 최근 행(window)만 메모리에 두고 나머지는 압축된 임시파일로 내려서 행 수와 상관없이 일정한 메모리 사용
+        SXSSFWorkbook workbook = new SXSSFWorkbook(RESULT_EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        StatusProgressReporter progress = statusService.newProgressReporter(status, StatusProgressReporter.Field.EXCEL);
+        try (FileOutputStream fos = new FileOutputStream(path)) {
+            SXSSFSheet sheet = workbook.createSheet("유효키워드 추출결과");
+
+            Row navRow = sheet.createRow(0);
+
+            //컬럼명 생성
+            navRow.createCell(0).setCellValue("상품명");
+            navRow.createCell(1).setCellValue("상품번호");
+            navRow.createCell(2).setCellValue("카테고리 변경전");
+            navRow.createCell(3).setCellValue("카테고리 변경후");
+            navRow.createCell(4).setCellValue("대표키워드");
+            for(int i=1;i<=5;i++){
+                navRow.createCell(i+4).setCellValue("유효키워드"+i);
+            }
 
-        for (int r = 0; r < backupList.size(); r++) {
-            try {
-                XSSFRow row = sheet.createRow(r + 1);
-                row.createCell(0).setCellValue(backupList.get(r).getProduct());
-                row.createCell(1).setCellValue(backupList.get(r).getProductNo());
-                row.createCell(2).setCellValue(backupList.get(r).getCategory());
-                // 카테고리 '/' 값 처리
-                // '카테고리1/카테고리2' 형태에서 '/'를 포함한 카테고리2 부분을 제거하여 카테고리값 재정립
-                int removeSlashIndex = backupList.get(r).getCategory().indexOf('/');
-                if(removeSlashIndex==-1){
-                    row.createCell(3).setCellValue(backupList.get(r).getCategory());
-                }else{
-                    row.createCell(3).setCellValue(backupList.get(r).getCategory().substring(0,removeSlashIndex));
-                }
+            //excel_index 순서로 한 행씩 받아서 바로 기록
+            backupService.streamBackupsByWorkId(workId, context -> {
+                int r = context.getResultCount();
+                Backup backup = context.getResultObject();
+                try {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue(backup.getProduct());
+                    row.createCell(1).setCellValue(backup.getProductNo());
+                    row.createCell(2).setCellValue(backup.getCategory());
+                    // 카테고리 '/' 값 처리
+                    // '카테고리1/카테고리2' 형태에서 '/'를 포함한 카테고리2 부분을 제거하여 카테고리값 재정립
+                    int removeSlashIndex = backup.getCategory().indexOf('/');
+                    if(removeSlashIndex==-1){
+                        row.createCell(3).setCellValue(backup.getCategory());
+                    }else{
+                        row.createCell(3).setCellValue(backup.getCategory().substring(0,removeSlashIndex));
+                    }
 
-                row.createCell(4).setCellValue(backupList.get(r).getValidKeyword());
+                    row.createCell(4).setCellValue(backup.getValidKeyword());
 
-                //유효키워드 리스트 값 엑셀에 생성
-                String[] keywordList = backupList.get(r).getKeywordList().split(",");
-                int listLength = keywordList.length - 1;
-                if (listLength > 5) {
-                    listLength = 5;
-                }
+                    //유효키워드 리스트 값 엑셀에 생성 (',' 로 시작하는 목록 - 첫 구간은 빈 값)
+                    String[] keywordList = backup.getKeywordList().split(",");
+                    int listLength = Math.min(keywordList.length - 1, 5);
+                    for (int i = 1; i <= listLength; i++) {
+                        row.createCell(i + 4).setCellValue(keywordList[i]);
+                    }
 
-                for (int i = 1; i <= listLength; i++) {
-                    row.createCell(i + 4).setCellValue(keywordList[i]);
+                    //status 처리
+                    progress.increment();
+                    progress.flushIfDue();
+                } catch (Exception e) {
+                    log.info("파일 변환 과정중 에러발생 (" + r + "번째 row)");
+                    log.info(String.valueOf(e.getMessage()));
                 }
+            });
 
-                log.info(r + "번째 row 변환 ");
-
-                //status 처리
-                status.setExcelProgress(status.getExcelProgress() + 1);
-                statusService.saveOrUpdateStatus(status);
-            } catch (Exception e) {
-                log.info("파일 변환 과정중 에러발생");
-                log.info(e.getMessage());
-            }
-
-        }
-
-        ////////다운로드 작업
-        String downloadName = DateUtil.getCurrentDate() +
-                filename + ".xlsx";
-        String path = REMOTE_RESULT_FILE_PATH + downloadName;
-
-        File file = new File(path);
-
-        try {
-            FileOutputStream fos = new FileOutputStream(file);
+            ////////다운로드 작업
             workbook.write(fos);
+        } finally {
+            progress.flush();
+            //임시파일 삭제
+            workbook.dispose();
             workbook.close();
-            fos.close();
-        } catch (IOException e) {
-            e.printStackTrace();
         }
 
         stopWatch.stop();
@@ -0,0 +1,14 @@
+package com.example.demo.api.keyword;
+
+/**
+ * 네이버 검색광고 키워드도구(/keywordstool) 응답의 키워드별 월간 검색수
+ * 10 미만('< 10')은 0 으로 저장
+ */
+public record NaverKeywordMetric(String relKeyword, //키워드 이름
+                                 int monthlyPcQcCnt, //Pc 월간 검색수
+                                 int monthlyMobileQcCnt) { //모바일 월간 검색수
+
+    public int monthlyQcCnt() {
+        return monthlyPcQcCnt + monthlyMobileQcCnt;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.api.keyword;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 네이버 api 응답 파서
+ * 응답 본문(byte stream)을 Jackson streaming JsonParser 로 읽으면서 필요한 필드만 꺼내고 나머지는 건너뛴다.
+ * (전체를 객체/트리로 만들거나 문자열로 다시 직렬화하지 않음)
+ */
+public final class NaverResponseParser {
+
+    //thread-safe, 재사용
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder().build();
+
+    private static final String LESS_THAN_TEN = "< 10";
+
+    private NaverResponseParser() {
+    }
+
+    /**
+     * 쇼핑 검색 응답에서 첫번째 상품의 카테고리 경로 ('>' 로 연결, 빈 카테고리 제외)
+     * 검색 결과가 없거나 대분류 카테고리가 없으면 IOException
+     */
+    public static String firstItemCategoryPath(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (!moveToField(parser, "items") || parser.currentToken() != JsonToken.START_ARRAY
+                    || parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("쇼핑 검색 결과 없음");
+            }
+
+            String[] categories = new String[4];
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "category1" -> categories[0] = parser.getValueAsString();
+                    case "category2" -> categories[1] = parser.getValueAsString();
+                    case "category3" -> categories[2] = parser.getValueAsString();
+                    case "category4" -> categories[3] = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+
+            //대분류 카테고리가 없는 경우는 오류 상황으로 처리
+            if (categories[0] == null || categories[0].isEmpty()) {
+                throw new IOException("대분류 카테고리 없음");
+            }
+            StringBuilder path = new StringBuilder(categories[0]);
+            for (int i = 1; i < categories.length; i++) {
+                if (categories[i] != null && !categories[i].isEmpty()) {
+                    path.append('>').append(categories[i]);
+                }
+            }
+            return path.toString();
+        }
+    }
+
+    //키워드도구 응답의 keywordList
+    public static List<NaverKeywordMetric> keywordMetrics(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (!moveToField(parser, "keywordList") || parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new IOException("키워드도구 응답에 keywordList 없음");
+            }
+
+            List<NaverKeywordMetric> metrics = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String relKeyword = null;
+                int pc = 0;
+                int mobile = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    switch (name) {
+                        case "relKeyword" -> relKeyword = parser.getValueAsString();
+                        case "monthlyPcQcCnt" -> pc = queryCount(parser);
+                        case "monthlyMobileQcCnt" -> mobile = queryCount(parser);
+                        default -> parser.skipChildren();
+                    }
+                }
+                metrics.add(new NaverKeywordMetric(relKeyword, pc, mobile));
+            }
+            return metrics;
+        }
+    }
+
+    //쇼핑인사이트 분야별 인기검색어 응답의 ranks (순위 순)
+    public static List<String> rankKeywords(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (!moveToField(parser, "ranks") || parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new IOException("인기검색어 응답에 ranks 없음");
+            }
+
+            List<String> keywords = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    if ("keyword".equals(name)) {
+                        keywords.add(parser.getValueAsString());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return keywords;
+        }
+    }
+
+    //최상위 객체에서 필드를 찾아 값 토큰으로 이동. 없으면 false
+    private static boolean moveToField(JsonParser parser, String field) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (field.equals(name)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    //월간 검색수 (숫자 또는 '< 10' 문자열)
+    private static int queryCount(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        String text = parser.getValueAsString();
+        if (text == null || text.equals(LESS_THAN_TEN)) {
+            return 0;
+        }
+        return Integer.parseInt(text.trim());
+    }
+}
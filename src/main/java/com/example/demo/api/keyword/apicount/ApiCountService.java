@@ -16,6 +16,8 @@ public class ApiCountService {
 
     private final ApiCountRepository apiCountRepository;
 
+    private final NaverCredentialPool naverCredentialPool;
+
     @Transactional
     public void updateApiCount(ApiCount apiCount){
         apiCountRepository.save(apiCount);
@@ -25,12 +27,13 @@ public class ApiCountService {
         return apiCountRepository.findById(id).orElse(null);
     }
 
-    //12시에 api 사용횟수를 0으로 초기화
-    //NOTE : 추후에 여러 스케쥴을 사용하려면 @EnableAsync, @Async 사용해야함(비동기로 바꿔야함)
+    //12시에 api 사용횟수를 0으로 초기화 (모든 인증정보 사용량 포함)
+    //스케줄 작업은 SchedulingConfig 의 스레드 풀에서 실행 (다른 작업이 오래 걸려도 밀리지 않음)
     @Scheduled(cron = "0 0 0 * * *")
     @Transactional
     public void resetApiCount() {
         log.info("API 사용 횟수 초기화 작업 시작");
+        naverCredentialPool.resetUsage();
         try {
             ApiCount apiCount = apiCountRepository.findById(DEFAULT_API_COUNT_ID).orElse(null);
             if (apiCount != null) {
@@ -0,0 +1,16 @@
+package com.example.demo.api.keyword.apicount;
+
+/**
+ * 네이버 쇼핑 검색 api 인증정보
+ */
+public record NaverCredential(
+        String clientId,
+        String clientSecret
+) {
+
+    //로그 등에 secret 이 노출되지 않도록 제외
+    @Override
+    public String toString() {
+        return "NaverCredential[clientId=" + clientId + "]";
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo.api.keyword.apicount;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 네이버 쇼핑 검색 api 인증정보 pool
+ * 인증정보별 일일 사용량을 redis INCR 로 세어 모든 노드가 공유하고,
+ * 호출마다 사용량이 가장 적은 인증정보를 선택한다.
+ * 합계 사용량은 주기적으로 api_count 테이블에 반영한다.
+ */
+@Slf4j
+@Component
+public class NaverCredentialPool {
+
+    private static final String KEY_PREFIX = "naver-credential:usage:";
+    private static final long KEY_TTL_SECONDS = 2 * 24 * 60 * 60;
+    private static final int DEFAULT_API_COUNT_ID = 1;
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/credential-acquire.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ApiCountRepository apiCountRepository;
+
+    @Getter
+    private final List<NaverCredential> credentials;
+    private final List<String> usageKeys;
+    @Getter
+    private final int dailyQuota;
+
+    //redis 장애시 사용하는 노드 내부 사용량
+    private final AtomicLongArray localUsage;
+
+    public NaverCredentialPool(StringRedisTemplate redisTemplate, ApiCountRepository apiCountRepository,
+                               @Value("${open-api.naver.search-shop.client-id}") String clientId,
+                               @Value("${open-api.naver.search-shop.client-secret}") String clientSecret,
+                               @Value("${open-api.naver.search-shop.client-id2}") String clientId2,
+                               @Value("${open-api.naver.search-shop.client-secret2}") String clientSecret2,
+                               @Value("${open-api.naver.search-shop.extra-credentials:}") String extraCredentials,
+                               @Value("${open-api.naver.search-shop.daily-quota:25000}") int dailyQuota) {
+        this.redisTemplate = redisTemplate;
+        this.apiCountRepository = apiCountRepository;
+        this.dailyQuota = dailyQuota;
+
+        List<NaverCredential> pool = new ArrayList<>();
+        pool.add(new NaverCredential(clientId, clientSecret));
+        pool.add(new NaverCredential(clientId2, clientSecret2));
+        //추가 인증정보 : clientId:clientSecret,clientId:clientSecret
+        for (String entry : extraCredentials.split(",")) {
+            String[] pair = entry.trim().split(":", 2);
+            if (pair.length == 2 && !pair[0].isBlank()) {
+                pool.add(new NaverCredential(pair[0].trim(), pair[1].trim()));
+            }
+        }
+        this.credentials = Collections.unmodifiableList(pool);
+        this.usageKeys = pool.stream().map(credential -> KEY_PREFIX + credential.clientId()).toList();
+        this.localUsage = new AtomicLongArray(pool.size());
+    }
+
+    //사용량이 가장 적은 인증정보 선택 (사용량 1 증가)
+    public NaverCredential acquire() {
+        int index = acquireIndex();
+        if (index < 0) {
+            throw new IllegalStateException("네이버 쇼핑 api 일일 사용량 초과");
+        }
+        return credentials.get(index);
+    }
+
+    private int acquireIndex() {
+        try {
+            Long index = redisTemplate.execute(ACQUIRE_SCRIPT, usageKeys,
+                    String.valueOf(dailyQuota), String.valueOf(KEY_TTL_SECONDS));
+            if (index != null) {
+                return index.intValue();
+            }
+        } catch (Exception e) {
+            log.warn("인증정보 사용량 redis 갱신 실패, 노드 내부 사용량 사용 : {}", e.getMessage());
+        }
+        return acquireLocalIndex();
+    }
+
+    private synchronized int acquireLocalIndex() {
+        int best = -1;
+        for (int i = 0; i < localUsage.length(); i++) {
+            long usage = localUsage.get(i);
+            if (usage < dailyQuota && (best < 0 || usage < localUsage.get(best))) {
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            localUsage.incrementAndGet(best);
+        }
+        return best;
+    }
+
+    //인증정보별 금일 사용량
+    public List<Long> getUsages() {
+        List<Long> usages = new ArrayList<>();
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(usageKeys);
+            for (int i = 0; i < usageKeys.size(); i++) {
+                String value = values == null ? null : values.get(i);
+                usages.add(value == null ? 0L : Long.parseLong(value));
+            }
+        } catch (Exception e) {
+            log.warn("인증정보 사용량 redis 조회 실패 : {}", e.getMessage());
+            usages.clear();
+            for (int i = 0; i < localUsage.length(); i++) {
+                usages.add(localUsage.get(i));
+            }
+        }
+        return usages;
+    }
+
+    //모든 인증정보 사용량 초기화
+    public void resetUsage() {
+        try {
+            redisTemplate.delete(usageKeys);
+        } catch (Exception e) {
+            log.error("인증정보 사용량 redis 초기화 실패", e);
+        }
+        for (int i = 0; i < localUsage.length(); i++) {
+            localUsage.set(i, 0);
+        }
+    }
+
+    //합계 사용량을 api_count 테이블에 반영
+    @Scheduled(fixedDelayString = "${open-api.naver.search-shop.usage-flush-interval-ms:60000}")
+    public void flushUsage() {
+        try {
+            ApiCount apiCount = apiCountRepository.findById(DEFAULT_API_COUNT_ID).orElse(null);
+            if (apiCount == null) {
+                return;
+            }
+            int total = (int) getUsages().stream().mapToLong(Long::longValue).sum();
+            if (apiCount.getUseCount() == null || apiCount.getUseCount() != total) {
+                apiCount.setUseCount(total);
+                apiCountRepository.save(apiCount);
+            }
+        } catch (Exception e) {
+            log.warn("api 사용횟수 반영 실패 : {}", e.getMessage());
+        }
+    }
+}
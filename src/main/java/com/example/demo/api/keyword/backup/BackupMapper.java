@@ -1,6 +1,8 @@
 package com.example.demo.api.keyword.backup;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 
@@ -9,7 +11,17 @@ public interface BackupMapper {
 
     void insertBackup(Backup backup);
 
+    void insertBackups(List<Backup> backups);
+
     void updateBackup(Backup backup);
 
+    void deleteBackupsByWorkId(Integer workId);
+
     List<Backup> getBackupsByWorkId(Integer workId);
+
+    List<Backup> getBackupsByExcelIndexRange(@Param("workId") Integer workId,
+                                             @Param("excelIndexFrom") Integer excelIndexFrom,
+                                             @Param("excelIndexTo") Integer excelIndexTo);
+
+    void streamBackupsByWorkId(@Param("workId") Integer workId, ResultHandler<Backup> handler);
 }
@@ -1,6 +1,10 @@
 package com.example.demo.api.keyword.backup;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,16 +15,49 @@ public class BackupRepository {
 
     final private BackupMapper backupMapper;
 
+    final private SqlSessionFactory sqlSessionFactory;
+
     public void insertBackup(Backup backup){
         backupMapper.insertBackup(backup);
     }
 
+    //multi-row insert (생성된 id는 각 객체에 설정됨)
+    public void insertBackups(List<Backup> backups){
+        backupMapper.insertBackups(backups);
+    }
+
     public void updateBackup(Backup backup){
         backupMapper.updateBackup(backup);
     }
 
+    public void deleteBackupsByWorkId(Integer workId){
+        backupMapper.deleteBackupsByWorkId(workId);
+    }
+
+    //BATCH executor 로 여러 행을 한번에 업데이트
+    public void updateBackups(List<Backup> backups){
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            BackupMapper batchMapper = session.getMapper(BackupMapper.class);
+            for (Backup backup : backups) {
+                batchMapper.updateBackup(backup);
+            }
+            session.flushStatements();
+            session.commit();
+        }
+    }
+
     //work id로 backup 리스트 가져오기
     public List<Backup> getBackupsByWorkId(Integer workId){
         return backupMapper.getBackupsByWorkId(workId);
     }
+
+    //work id와 excel_index 범위로 backup 리스트 가져오기 (excel_index 순)
+    public List<Backup> getBackupsByExcelIndexRange(Integer workId, Integer excelIndexFrom, Integer excelIndexTo){
+        return backupMapper.getBackupsByExcelIndexRange(workId, excelIndexFrom, excelIndexTo);
+    }
+
+    //work id로 backup 을 excel_index 순서로 한 행씩 전달
+    public void streamBackupsByWorkId(Integer workId, ResultHandler<Backup> handler){
+        backupMapper.streamBackupsByWorkId(workId, handler);
+    }
 }
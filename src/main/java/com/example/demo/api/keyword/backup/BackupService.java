@@ -1,7 +1,9 @@
 package com.example.demo.api.keyword.backup;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,19 +14,61 @@ public class BackupService {
 
     private final BackupRepository backupRepository;
 
+    //한번의 INSERT 로 저장할 최대 행 수
+    @Value("${keyword-service.backup.insert-chunk-size:500}")
+    private int INSERT_CHUNK_SIZE;
+
+    //write-behind 버퍼 flush 기준 (건수, 시간)
+    @Value("${keyword-service.backup.write-buffer.size:200}")
+    private int WRITE_BUFFER_SIZE;
+    @Value("${keyword-service.backup.write-buffer.interval-ms:2000}")
+    private long WRITE_BUFFER_INTERVAL_MS;
+
     //백업 생성
     //추출작업 맨처음에 생성
     public void insertBackup(Backup backup){
         backupRepository.insertBackup(backup);
     }
 
+    //백업 일괄 생성 (chunk 단위 multi-row insert)
+    public void insertBackups(List<Backup> backups){
+        for (int from = 0; from < backups.size(); from += INSERT_CHUNK_SIZE) {
+            backupRepository.insertBackups(backups.subList(from, Math.min(from + INSERT_CHUNK_SIZE, backups.size())));
+        }
+    }
+
     //한 칼럼 작업 완료시에 업데이트
     public void updateBackup(Backup backup){
         backupRepository.updateBackup(backup);
     }
 
+    //work 의 backup 전체 삭제 (원장 읽기 재시작시)
+    public void deleteBackupsByWorkId(Integer workId){
+        backupRepository.deleteBackupsByWorkId(workId);
+    }
+
+    //여러 행 batch 업데이트
+    public void updateBackups(List<Backup> backups){
+        backupRepository.updateBackups(backups);
+    }
+
+    //추출 작업용 write-behind 버퍼 생성
+    public BackupWriteBuffer newWriteBuffer(){
+        return new BackupWriteBuffer(this, WRITE_BUFFER_SIZE, WRITE_BUFFER_INTERVAL_MS);
+    }
+
     //work id로 backup 리스트 가져오기
     public List<Backup> getBackupsByWorkId(Integer workId){
         return backupRepository.getBackupsByWorkId(workId);
     }
+
+    //chunk 범위의 backup 리스트 가져오기 (excel_index 순)
+    public List<Backup> getBackupsByExcelIndexRange(Integer workId, Integer excelIndexFrom, Integer excelIndexTo){
+        return backupRepository.getBackupsByExcelIndexRange(workId, excelIndexFrom, excelIndexTo);
+    }
+
+    //work id로 backup 을 excel_index 순서로 한 행씩 처리 (결과 엑셀 생성용)
+    public void streamBackupsByWorkId(Integer workId, ResultHandler<Backup> handler){
+        backupRepository.streamBackupsByWorkId(workId, handler);
+    }
 }
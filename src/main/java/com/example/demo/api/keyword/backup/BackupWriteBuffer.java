@@ -0,0 +1,63 @@
+package com.example.demo.api.keyword.backup;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * backup 변경 write-behind 버퍼 (추출 작업 1회당 1개, 단일 스레드에서 사용)
+ * 같은 행의 변경은 마지막 상태 하나로 합치고, 건수 또는 시간 기준으로 batch UPDATE 한다.
+ * 강제종료/작업 완료시에는 반드시 flush() 를 호출해야 한다.
+ */
+@Slf4j
+public class BackupWriteBuffer {
+
+    private final BackupService backupService;
+    private final int maxSize;
+    private final long flushIntervalMs;
+
+    //backup id -> 마지막 상태
+    private final Map<Integer, Backup> pending = new LinkedHashMap<>();
+    private long lastFlushedAt = System.currentTimeMillis();
+    //flush 된 마지막 행의 excel_index 전달 (행을 excel_index 순서로 write 하는 경우 checkpoint 로 사용)
+    private IntConsumer flushListener = excelIndex -> { };
+
+    BackupWriteBuffer(BackupService backupService, int maxSize, long flushIntervalMs) {
+        this.backupService = backupService;
+        this.maxSize = maxSize;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public void onFlush(IntConsumer flushListener) {
+        this.flushListener = flushListener;
+    }
+
+    //행 상태 기록 (건수 기준 도달시 flush)
+    public void write(Backup backup) {
+        pending.put(backup.getId(), backup);
+        if (pending.size() >= maxSize) {
+            flush();
+        }
+    }
+
+    //마지막 flush 이후 시간 기준 도달시 flush
+    public void flushIfDue() {
+        if (!pending.isEmpty() && System.currentTimeMillis() - lastFlushedAt >= flushIntervalMs) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (!pending.isEmpty()) {
+            ArrayList<Backup> backups = new ArrayList<>(pending.values());
+            backupService.updateBackups(backups);
+            log.info("backup {}건 batch 업데이트", pending.size());
+            pending.clear();
+            flushListener.accept(backups.get(backups.size() - 1).getExcelIndex());
+        }
+        lastFlushedAt = System.currentTimeMillis();
+    }
+}
@@ -3,7 +3,9 @@ package com.example.demo.api.keyword.category;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -26,4 +28,13 @@ public class CategoryController {
         }
         return ResponseEntity.ok(categoryDTO);
     }
+
+    // 카테고리 트라이 재적재 (category 테이블 변경 후 호출)
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Integer> reloadCategoryPath(){
+        int size = categoryService.reloadCategoryPath();
+        log.info(">>>>>>> [reloadCategoryPath] 카테고리 {}건 적재", size);
+        return ResponseEntity.ok(size);
+    }
 }
@@ -0,0 +1,165 @@
+package com.example.demo.api.keyword.category;
+
+import com.example.demo.api.keyword.KeywordService;
+import com.example.demo.api.keyword.NaverKeywordMetric;
+import com.example.demo.common.lock.RedisLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * category_keyword 월간 검색수 갱신
+ * 검색수 갱신이 가장 오래된 행부터 키워드도구 api 한번에 5개씩 조회하고 BATCH executor 로 저장한다.
+ * 하루 호출 수는 redis 카운터로 모든 노드가 공유하며 daily-budget 을 넘지 않는다.
+ * 요청 처리중의 후보 키워드 필터링(ExtractCondition.acceptsLocalMetrics)은 저장된 값만 사용한다.
+ */
+@Slf4j
+@Component
+public class CategoryKeywordCountRefresher {
+
+    private static final String CALLS_KEY_PREFIX = "category-keyword-refresh:calls:";
+    private static final String LOCK_KEY = "category-keyword-refresh:lock";
+    private static final Duration CALLS_KEY_TTL = Duration.ofDays(2);
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    private final KeywordService keywordService;
+    private final CategoryRepository categoryRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisLock redisLock;
+
+    //하루 키워드도구 호출 수
+    private final int dailyBudget;
+    //한번 실행에서 최대 호출 수
+    private final int callsPerRun;
+    //갱신 후 n일이 지난 행만 다시 갱신
+    private final long minAgeMillis;
+    //한번에 저장할 행 수
+    private final int batchSize;
+    private final Duration lockTtl;
+
+    public CategoryKeywordCountRefresher(KeywordService keywordService,
+                                         CategoryRepository categoryRepository,
+                                         StringRedisTemplate redisTemplate,
+                                         RedisLock redisLock,
+                                         @Value("${keyword-service.category-keyword-refresh.daily-budget:2000}") int dailyBudget,
+                                         @Value("${keyword-service.category-keyword-refresh.calls-per-run:100}") int callsPerRun,
+                                         @Value("${keyword-service.category-keyword-refresh.min-age-days:7}") long minAgeDays,
+                                         @Value("${keyword-service.category-keyword-refresh.batch-size:100}") int batchSize,
+                                         @Value("${keyword-service.category-keyword-refresh.lock-ttl-minutes:30}") long lockTtlMinutes) {
+        this.keywordService = keywordService;
+        this.categoryRepository = categoryRepository;
+        this.redisTemplate = redisTemplate;
+        this.redisLock = redisLock;
+        this.dailyBudget = dailyBudget;
+        this.callsPerRun = callsPerRun;
+        this.minAgeMillis = TimeUnit.DAYS.toMillis(minAgeDays);
+        this.batchSize = batchSize;
+        this.lockTtl = Duration.ofMinutes(lockTtlMinutes);
+    }
+
+    //여러 노드 중 lock 을 얻은 노드 하나만 갱신
+    @Scheduled(fixedDelayString = "${keyword-service.category-keyword-refresh.interval-ms:600000}")
+    public void refresh() {
+        String callsKey = CALLS_KEY_PREFIX + LocalDate.now(ZONE);
+        String used = redisTemplate.opsForValue().get(callsKey);
+        int remaining = Math.min(callsPerRun, dailyBudget - (used == null ? 0 : Integer.parseInt(used)));
+        if (remaining <= 0) {
+            return;
+        }
+
+        if (!redisLock.tryAcquire(LOCK_KEY, lockTtl)) {
+            return;
+        }
+        try {
+            List<CategoryKeyword> targets = categoryRepository.getCategoryKeywordsForCountRefresh(
+                    new Date(System.currentTimeMillis() - minAgeMillis), remaining * KeywordService.KEYWORDS_TOOL_MAX_HINTS);
+            if (targets.isEmpty()) {
+                return;
+            }
+
+            List<CategoryKeyword> updated = new ArrayList<>(batchSize);
+            int calls = 0;
+            int saved = 0;
+            for (int from = 0; from < targets.size(); from += KeywordService.KEYWORDS_TOOL_MAX_HINTS) {
+                List<CategoryKeyword> group = targets.subList(from, Math.min(from + KeywordService.KEYWORDS_TOOL_MAX_HINTS, targets.size()));
+
+                Long count = redisTemplate.opsForValue().increment(callsKey);
+                if (count != null && count == 1) {
+                    redisTemplate.expire(callsKey, CALLS_KEY_TTL);
+                }
+                if (count != null && count > dailyBudget) {
+                    break;
+                }
+                calls++;
+
+                boolean failed = false;
+                try {
+                    apply(group, keywordService.getKeywordMetrics(group.stream().map(CategoryKeyword::getKeyword).toList()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    //조회가 안되는 키워드 때문에 같은 행만 계속 조회하지 않도록 값은 그대로 두고 갱신 시각만 변경
+                    //api 장애일 수 있으므로 이번 실행은 중단
+                    log.warn("키워드도구 조회 실패 : {} ({})", group.stream().map(CategoryKeyword::getKeyword).toList(), e.getMessage());
+                    failed = true;
+                }
+                updated.addAll(group);
+
+                if (failed || updated.size() >= batchSize) {
+                    saved += save(updated);
+                }
+                if (failed) {
+                    break;
+                }
+            }
+            saved += save(updated);
+            log.info("키워드 검색수 갱신 : 호출 {} 회, 저장 {} 개", calls, saved);
+        } finally {
+            redisLock.release(LOCK_KEY);
+        }
+    }
+
+    //키워드도구 결과 중 조회한 키워드의 검색수 반영 (결과에 없으면 기존 값 유지)
+    private void apply(List<CategoryKeyword> group, List<NaverKeywordMetric> metrics) {
+        Map<String, NaverKeywordMetric> byKeyword = new HashMap<>();
+        for (NaverKeywordMetric metric : metrics) {
+            byKeyword.put(normalize(metric.relKeyword()), metric);
+        }
+        for (CategoryKeyword categoryKeyword : group) {
+            NaverKeywordMetric metric = byKeyword.get(normalize(categoryKeyword.getKeyword()));
+            if (metric != null) {
+                categoryKeyword.setMonthlyPcQcCnt(metric.monthlyPcQcCnt());
+                categoryKeyword.setMonthlyMobileQcCnt(metric.monthlyMobileQcCnt());
+            }
+        }
+    }
+
+    //키워드도구는 공백을 제거하고 영문을 대문자로 반환
+    private static String normalize(String keyword) {
+        return keyword == null ? "" : keyword.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+    }
+
+    private int save(List<CategoryKeyword> updated) {
+        if (updated.isEmpty()) {
+            return 0;
+        }
+        int size = updated.size();
+        categoryRepository.updateCategoryKeywordCounts(updated);
+        updated.clear();
+        return size;
+    }
+}
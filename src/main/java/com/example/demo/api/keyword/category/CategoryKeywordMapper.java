@@ -1,7 +1,9 @@
 package com.example.demo.api.keyword.category;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 
 @Mapper
@@ -9,4 +11,10 @@ public interface CategoryKeywordMapper {
 
     // 카테고리 id로 CategoryKeyword 리스트 조회
    List<CategoryKeyword> getCategoryKeywordListByCategoryId(String categoryId);
+
+    // 검색수 갱신 대상 조회 (updatedBefore 이전에 갱신된 행, 오래된 순)
+    List<CategoryKeyword> getCategoryKeywordsForCountRefresh(@Param("updatedBefore") Date updatedBefore, @Param("limit") int limit);
+
+    // 월간 검색수 갱신
+    void updateCategoryKeywordCount(CategoryKeyword categoryKeyword);
 }
@@ -2,10 +2,18 @@ package com.example.demo.api.keyword.category;
 
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.List;
+
 @Mapper
 public interface CategoryMapper {
 
     // 카테고리명으로 Category 테이블 조회
     Category getCategoryByWholeName(String wholeName);
 
+    // 카테고리 id로 Category 테이블 조회
+    Category getCategoryById(String id);
+
+    // 카테고리 트라이 적재용 전체 경로 조회
+    List<Category> getAllCategoryPath();
+
 }
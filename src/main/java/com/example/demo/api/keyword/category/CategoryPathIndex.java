@@ -0,0 +1,49 @@
+package com.example.demo.api.keyword.category;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * category 테이블 전체를 메모리 트라이로 보관
+ * 기동시 적재하고, 스케쥴 또는 관리자 요청으로 다시 읽어 통째로 교체한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryPathIndex {
+
+    private final CategoryMapper categoryMapper;
+
+    private final AtomicReference<CategoryTrie> trie = new AtomicReference<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            //적재 실패시 조회는 DB 로 대체
+            log.error("카테고리 트라이 적재 실패", e);
+        }
+    }
+
+    //카테고리 트라이 재적재 (새로 만든 트라이로 교체)
+    @Scheduled(cron = "${keyword-service.category-trie.reload-cron:0 30 3 * * *}")
+    public int reload() {
+        List<Category> categories = categoryMapper.getAllCategoryPath();
+        CategoryTrie loaded = CategoryTrie.of(categories);
+        trie.set(loaded);
+        log.info("카테고리 트라이 적재 완료 : {}건", loaded.size());
+        return loaded.size();
+    }
+
+    //적재 전이면 null
+    public CategoryTrie current() {
+        return trie.get();
+    }
+}
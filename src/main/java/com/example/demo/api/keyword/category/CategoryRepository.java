@@ -1,8 +1,12 @@
 package com.example.demo.api.keyword.category;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -13,14 +17,38 @@ public class CategoryRepository {
 
     private final CategoryKeywordMapper categoryKeywordMapper;
 
+    private final SqlSessionFactory sqlSessionFactory;
+
     // 카테고리명으로 Category 테이블 조회
     public Category getCategoryByWholeName(String wholeName){
         return categoryMapper.getCategoryByWholeName(wholeName);
     }
 
+    // 카테고리 id로 Category 테이블 조회
+    public Category getCategoryById(String id){
+        return categoryMapper.getCategoryById(id);
+    }
+
     // 카테고리 id로 CategoryKeyword 리스트 조회
     public List<CategoryKeyword> getCategoryKeywordListByCategoryId(String categoryId){
         return categoryKeywordMapper.getCategoryKeywordListByCategoryId(categoryId);
     }
 
+    // 검색수 갱신 대상 조회 (오래된 순)
+    public List<CategoryKeyword> getCategoryKeywordsForCountRefresh(Date updatedBefore, int limit){
+        return categoryKeywordMapper.getCategoryKeywordsForCountRefresh(updatedBefore, limit);
+    }
+
+    //BATCH executor 로 여러 행의 월간 검색수를 한번에 업데이트
+    public void updateCategoryKeywordCounts(List<CategoryKeyword> categoryKeywords){
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            CategoryKeywordMapper batchMapper = session.getMapper(CategoryKeywordMapper.class);
+            for (CategoryKeyword categoryKeyword : categoryKeywords) {
+                batchMapper.updateCategoryKeywordCount(categoryKeyword);
+            }
+            session.flushStatements();
+            session.commit();
+        }
+    }
+
 }
@@ -11,6 +11,8 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
+    private final CategoryPathIndex categoryPathIndex;
+
     // 카테고리명으로 Category 테이블 조회 return DTO
     public CategoryDTO getCategoryByWholeName(String wholeName){
         Category category = categoryRepository.getCategoryByWholeName(wholeName);
@@ -33,6 +35,26 @@ public class CategoryService {
         return categoryRepository.getCategoryByWholeName(wholeName);
     }
 
+    // 카테고리 id로 Category 테이블 조회 return entity
+    public Category getCategoryEntityById(String id) {
+        return categoryRepository.getCategoryById(id);
+    }
+
+    // 카테고리 경로로 Category 조회 (메모리 트라이)
+    // 경로가 없으면 가장 가까운 상위 카테고리 반환
+    public Category findCategoryByPath(String wholeName) {
+        CategoryTrie trie = categoryPathIndex.current();
+        if (trie == null) {
+            return categoryRepository.getCategoryByWholeName(wholeName);
+        }
+        return trie.findLongestMatch(wholeName);
+    }
+
+    // 카테고리 트라이 재적재
+    public int reloadCategoryPath() {
+        return categoryPathIndex.reload();
+    }
+
     // 카테고리 id로 CategoryKeyword 리스트 조회
     public List<CategoryKeyword> getCategoryKeywordListByCategoryId(String categoryId){
         return categoryRepository.getCategoryKeywordListByCategoryId(categoryId);
@@ -0,0 +1,138 @@
+package com.example.demo.api.keyword.category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * '>' 로 구분된 카테고리 전체 경로(wholeName) 트라이 (불변)
+ * 조회시 경로 문자열을 자르지 않고 구간 hash 로 자식 노드를 찾기 때문에 객체 생성 없이 O(경로 길이)로 동작한다.
+ */
+public final class CategoryTrie {
+
+    private static final char SEPARATOR = '>';
+
+    private final Node root;
+    private final int size;
+
+    private CategoryTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static CategoryTrie of(Collection<Category> categories) {
+        Builder root = new Builder();
+        int size = 0;
+        for (Category category : categories) {
+            if (category.getWholeName() == null || category.getWholeName().isEmpty()) {
+                continue;
+            }
+            Builder node = root;
+            for (String segment : category.getWholeName().split(String.valueOf(SEPARATOR), -1)) {
+                node = node.children.computeIfAbsent(segment, key -> new Builder());
+            }
+            node.category = category;
+            size++;
+        }
+        return new CategoryTrie(root.build(), size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //경로가 정확히 일치하는 카테고리. 없으면 null
+    public Category findExact(String wholeName) {
+        return find(wholeName, true);
+    }
+
+    //경로가 없으면 가장 깊이 일치하는 상위 카테고리. 최상위부터 없으면 null
+    public Category findLongestMatch(String wholeName) {
+        return find(wholeName, false);
+    }
+
+    private Category find(String wholeName, boolean exact) {
+        Node node = root;
+        Category best = null;
+        int length = wholeName.length();
+        int start = 0;
+        while (start <= length) {
+            int end = wholeName.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.child(wholeName, start, end);
+            if (node == null) {
+                return exact ? null : best;
+            }
+            if (node.category != null) {
+                best = node.category;
+            }
+            start = end + 1;
+        }
+        return exact ? node.category : best;
+    }
+
+    private static final class Node {
+
+        private final Category category;
+        //자식 노드는 segment hash 순으로 정렬
+        private final int[] hashes;
+        private final String[] segments;
+        private final Node[] children;
+
+        private Node(Category category, int[] hashes, String[] segments, Node[] children) {
+            this.category = category;
+            this.hashes = hashes;
+            this.segments = segments;
+            this.children = children;
+        }
+
+        private Node child(String path, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                return null;
+            }
+            //hash 충돌 대비 같은 hash 구간 전체 확인
+            while (index > 0 && hashes[index - 1] == hash) {
+                index--;
+            }
+            int length = end - start;
+            for (; index < hashes.length && hashes[index] == hash; index++) {
+                String segment = segments[index];
+                if (segment.length() == length && path.regionMatches(start, segment, 0, length)) {
+                    return children[index];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<String, Builder> children = new HashMap<>();
+        private Category category;
+
+        private Node build() {
+            List<Map.Entry<String, Builder>> entries = new ArrayList<>(children.entrySet());
+            entries.sort((a, b) -> Integer.compare(a.getKey().hashCode(), b.getKey().hashCode()));
+
+            int[] hashes = new int[entries.size()];
+            String[] segments = new String[entries.size()];
+            Node[] nodes = new Node[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                hashes[i] = entries.get(i).getKey().hashCode();
+                segments[i] = entries.get(i).getKey();
+                nodes[i] = entries.get(i).getValue().build();
+            }
+            return new Node(category, hashes, segments, nodes);
+        }
+    }
+}
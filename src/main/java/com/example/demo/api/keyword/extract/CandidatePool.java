@@ -0,0 +1,60 @@
+package com.example.demo.api.keyword.extract;
+
+import com.example.demo.api.keyword.category.CategoryKeyword;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 카테고리 후보 키워드 중 로컬 기준(판매자수, 검색수)을 통과한 키워드
+ * 같은 run 에서 카테고리별로 한번만 만들고 여러 행이 공유한다. (읽기 전용)
+ * 상표 체크(원격)는 여기 남은 키워드에만 수행한다.
+ */
+final class CandidatePool {
+
+    private final List<CategoryKeyword> candidates;
+    private final int totalCount;
+
+    private CandidatePool(List<CategoryKeyword> candidates, int totalCount) {
+        this.candidates = candidates;
+        this.totalCount = totalCount;
+    }
+
+    static CandidatePool of(List<CategoryKeyword> categoryKeywords, ExtractCondition condition) {
+        int size = categoryKeywords.size();
+        int[] sellerCounts = new int[size];
+        int[] searchCounts = new int[size];
+        for (int i = 0; i < size; i++) {
+            CategoryKeyword categoryKeyword = categoryKeywords.get(i);
+            sellerCounts[i] = categoryKeyword.getSellStoreCount();
+            searchCounts[i] = categoryKeyword.getMonthlyPcQcCnt() + categoryKeyword.getMonthlyMobileQcCnt();
+        }
+
+        List<CategoryKeyword> candidates = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (condition.acceptsLocalMetrics(sellerCounts[i], searchCounts[i])) {
+                candidates.add(categoryKeywords.get(i));
+            }
+        }
+        return new CandidatePool(candidates, size);
+    }
+
+    int size() {
+        return candidates.size();
+    }
+
+    //로컬 기준 적용 전 카테고리 키워드 수
+    int totalCount() {
+        return totalCount;
+    }
+
+    CategoryKeyword get(int index) {
+        return candidates.get(index);
+    }
+
+    //행마다 새 무작위 순서
+    RandomOrder randomOrder(Random random) {
+        return new RandomOrder(candidates.size(), random);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.api.keyword.extract;
+
+/**
+ * 유효키워드 추출 조건 (큐 메세지로 전달받은 필터링 기준)
+ */
+public record ExtractCondition(
+        int sellerCountMin,
+        int sellerCountMax,
+        int searchCount,
+        String useKipris
+) {
+
+    //키프리스 사용여부
+    public boolean kiprisEnabled() {
+        return "사용".equals(useKipris);
+    }
+
+    //판매자수, 월간 검색수(pc + 모바일) 기준 통과 여부 (category_keyword 에 저장된 값, 원격 호출 없음)
+    public boolean acceptsLocalMetrics(int sellerCount, int searchCount) {
+        return sellerCountMin <= sellerCount && sellerCount <= sellerCountMax && searchCount > this.searchCount;
+    }
+}
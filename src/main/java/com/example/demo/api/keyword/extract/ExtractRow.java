@@ -0,0 +1,39 @@
+package com.example.demo.api.keyword.extract;
+
+import com.example.demo.api.keyword.backup.Backup;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 파이프라인 단계 사이를 흘러가는 한 행(row)의 추출 상태
+ */
+@Getter
+@Setter
+public class ExtractRow {
+
+    private final int sequence;//dataList 내 순서 (excelIndex 순)
+    private final Backup backup;
+
+    private String wholeCategory;//쇼핑 api 전체 카테고리 경로
+    private String standardKeyword;//기본 키워드(기준 카테고리)
+    private String catId;
+    private CandidatePool candidates;//로컬 기준을 통과한 후보 키워드
+    private int trademarkChecks;//결과를 사용한 키프리스 상표 체크 횟수
+
+    private boolean finished;//이후 단계를 건너뛰고 저장만 하는 행
+    private boolean completed;//정상 처리되어 progress 에 반영되는 행
+    private boolean kiprisExceeded;//키프리스 사용초과(resultCode : 22)
+
+    public ExtractRow(int sequence, Backup backup) {
+        this.sequence = sequence;
+        this.backup = backup;
+    }
+
+    //결과값을 한번에 설정하고 남은 단계를 건너뜀
+    public void finishWith(String message) {
+        backup.setValidKeyword(message);
+        backup.setKeywordList(message);
+        backup.setCategory(message);
+        finished = true;
+    }
+}
@@ -0,0 +1,535 @@
+package com.example.demo.api.keyword.extract;
+
+import com.example.demo.api.keyword.KeywordService;
+import com.example.demo.api.keyword.backup.Backup;
+import com.example.demo.api.keyword.backup.BackupService;
+import com.example.demo.api.keyword.backup.BackupWriteBuffer;
+import com.example.demo.api.keyword.category.CategoryKeyword;
+import com.example.demo.api.keyword.category.CategoryService;
+import com.example.demo.api.keyword.rank.RankHarvester;
+import com.example.demo.api.keyword.resolution.CategoryResolution;
+import com.example.demo.api.keyword.resolution.CategoryResolutionService;
+import com.example.demo.api.keyword.trademark.TrademarkCheck;
+import com.example.demo.api.keyword.trademark.TrademarkVerdict;
+import com.example.demo.api.status.Status;
+import com.example.demo.api.status.StatusProgressReporter;
+import com.example.demo.api.status.StatusService;
+import com.example.demo.common.cancel.CancellationToken;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * 유효키워드 추출 파이프라인
+ * 카테고리 조회 -> 후보 키워드 선정 -> 상표 체크 -> 결과 저장 단계를 bounded queue 로 연결하고
+ * 단계별 동시성은 각 외부 api 의 호출 제한에 맞춰 설정한다.
+ * 결과 저장 단계는 호출 스레드 하나에서 excelIndex 순서대로 수행된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExtractionPipeline {
+
+    //행마다 선정할 유효키워드 수
+    private static final int VALID_CANDIDATE_COUNT = 5;
+    private static final long POLL_INTERVAL_MS = 500;
+
+    private final KeywordService keywordService;
+    private final CategoryService categoryService;
+    private final BackupService backupService;
+    private final StatusService statusService;
+    private final CategoryResolutionService categoryResolutionService;
+    private final RankHarvester rankHarvester;
+    private final MeterRegistry meterRegistry;
+
+    //네이버 쇼핑 api (초당 10회 제한)
+    @Value("${keyword-service.pipeline.category-workers:2}")
+    private int CATEGORY_WORKERS;
+
+    //DB 조회
+    @Value("${keyword-service.pipeline.candidate-workers:2}")
+    private int CANDIDATE_WORKERS;
+
+    //키프리스 api
+    @Value("${keyword-service.pipeline.trademark-workers:4}")
+    private int TRADEMARK_WORKERS;
+
+    //한 행의 후보 키워드를 동시에 상표 체크할 최대 수 (1 이면 순차)
+    @Value("${keyword-service.pipeline.trademark-speculation.max-parallel:4}")
+    private int SPECULATION_MAX_PARALLEL;
+
+    //후보 키워드 무작위 순서 seed (설정하면 같은 행은 항상 같은 결과, 비어있으면 매번 무작위)
+    @Value("${keyword-service.pipeline.candidate-seed:#{null}}")
+    private Long CANDIDATE_SEED;
+
+    //단계 사이 queue 크기
+    @Value("${keyword-service.pipeline.queue-capacity:64}")
+    private int QUEUE_CAPACITY;
+
+    //동시에 처리중일 수 있는 최대 행 수 (순서 재정렬 버퍼 크기 제한)
+    @Value("${keyword-service.pipeline.window:256}")
+    private int WINDOW;
+
+    public enum Outcome {
+        COMPLETED,//모든 행 처리 완료
+        KIPRIS_EXCEEDED,//키프리스 사용초과로 중단
+        KILLED//강제종료 시그널
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ExtractRow row) throws Exception;
+    }
+
+    /**
+     * 파이프라인 실행
+     * @param dataList excelIndex 순으로 정렬된 backup 목록
+     * @param status progress 를 반영할 status
+     * @param cancellationToken work 강제종료 토큰 (취소시 진행중인 외부 api 요청도 중단)
+     * @param checkpoint 저장이 끝난 마지막 행의 excelIndex 를 전달받음
+     */
+    public Outcome run(int workId, List<Backup> dataList, ExtractCondition condition,
+                       Status status, CancellationToken cancellationToken, IntConsumer checkpoint) throws Exception {
+
+        List<ExtractRow> rows = new ArrayList<>(dataList.size());
+        for (int i = 0; i < dataList.size(); i++) {
+            rows.add(new ExtractRow(i, dataList.get(i)));
+        }
+
+        RunContext context = new RunContext(rows.size(), cancellationToken);
+        Semaphore window = new Semaphore(WINDOW);
+
+        BlockingQueue<ExtractRow> categoryQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ExtractRow> candidateQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ExtractRow> trademarkQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ExtractRow> resultQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        List<ExecutorService> pools = new ArrayList<>();
+        try {
+            ExecutorService feeder = newPool(workId, "feeder", 1, pools);
+            feeder.execute(() -> {
+                cancellationToken.bindToCurrentThread();
+                feed(rows, categoryQueue, window, context);
+            });
+
+            startStage(newPool(workId, "category", CATEGORY_WORKERS, pools), CATEGORY_WORKERS,
+                    categoryQueue, candidateQueue, context, row -> resolveCategory(row, context));
+            startStage(newPool(workId, "candidate", CANDIDATE_WORKERS, pools), CANDIDATE_WORKERS,
+                    candidateQueue, trademarkQueue, context, row -> selectCandidates(row, condition, context));
+            //행 안에서 동시에 수행하는 상표 체크
+            ExecutorService checkPool = newPool(workId, "trademark-check",
+                    TRADEMARK_WORKERS * Math.max(1, SPECULATION_MAX_PARALLEL), pools);
+            int maxParallel = speculationLimit(SPECULATION_MAX_PARALLEL,
+                    keywordService.kiprisRateLimiter().getPermitsPerSecond());
+            startStage(newPool(workId, "trademark", TRADEMARK_WORKERS, pools), TRADEMARK_WORKERS,
+                    trademarkQueue, resultQueue, context, row -> checkTrademark(row, condition, context, checkPool, maxParallel));
+
+            return persist(resultQueue, window, context, status, checkpoint);
+        } finally {
+            context.kill();
+            pools.forEach(ExecutorService::shutdownNow);
+        }
+    }
+
+    //행을 순서대로 첫 단계에 투입
+    private void feed(List<ExtractRow> rows, BlockingQueue<ExtractRow> out, Semaphore window, RunContext context) {
+        try {
+            for (ExtractRow row : rows) {
+                while (!window.tryAcquire(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                    if (context.isSkipped(row)) return;
+                }
+                if (context.isSkipped(row)) return;
+                out.put(row);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //단계 worker 시작. 처리 여부와 상관없이 모든 행은 다음 단계로 전달된다
+    private void startStage(ExecutorService pool, int workers, BlockingQueue<ExtractRow> in,
+                            BlockingQueue<ExtractRow> out, RunContext context, RowHandler handler) {
+        for (int i = 0; i < workers; i++) {
+            pool.execute(() -> {
+                context.token.bindToCurrentThread();
+                try {
+                    while (true) {
+                        ExtractRow row = in.take();
+                        if (!row.isFinished() && !context.isSkipped(row)) {
+                            try {
+                                handler.handle(row);
+                            } catch (Exception e) {
+                                log.info(e.toString());
+                                row.getBackup().setValidKeyword("오류 발생");
+                                row.getBackup().setKeywordList("오류 발생");
+                                row.setFinished(true);
+                            }
+                        }
+                        out.put(row);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    //1. 기본 키워드 값 + catId 찾기
+    private void resolveCategory(ExtractRow row, RunContext context) throws Exception {
+        Backup element = row.getBackup();
+
+        //상품명과 번호 필수 값이 부족할때 패스
+        if (element.getProduct().equals("필수값부족") &&
+                element.getProductNo().equals("필수값부족")) {
+            log.info("엑셀 필수값 부족");
+            row.finishWith("필수값 부족");
+            return;
+        }
+
+        //에러 발생시 pass
+        CategoryResolution resolution;
+        try {
+            resolution = resolveShared(element.getProduct(), context);
+        } catch (Exception e) {
+            log.info(e.toString());
+            log.info("API 비정상 접근");
+            row.finishWith("API 비정상 접근");
+            return;
+        }
+        String standardKeyword = resolution.getStandardKeyword();
+        log.info("현재 상품이름은  : " + element.getProduct());
+        log.info("기본 키워드(기준 카테고리) : " + standardKeyword);
+
+        //// CHECK : '카테고리/카테고리'형태의 카테고리를 포함한 상품의 경우 상품명 자체에 카테고리를 포함하지 않을 가능성이 큼
+        // 카테고리 값이 상품명에 포함되어있는지 체크
+        if (!element.getProduct().contains(standardKeyword)) {
+            log.info("카테고리값이 상품명에 포함되어있지 않음");
+            row.finishWith("카테고리값이 상품명에 포함되어있지 않음");
+            return;
+        }
+
+        String catId = resolution.getCatId();
+        if (catId == null) {
+            throw new IllegalStateException("카테고리 테이블에 없는 경로 : " + resolution.getWholeCategory());
+        }
+        element.setCategory(standardKeyword);
+        log.info("기본 키워드의 cat_id : " + catId);
+        //인기검색어 수집 우선순위
+        rankHarvester.recordHit(catId);
+
+        row.setWholeCategory(resolution.getWholeCategory());
+        row.setStandardKeyword(standardKeyword);
+        row.setCatId(catId);
+    }
+
+    //같은 work 안의 중복 상품명은 한번만 조회하고 결과를 공유
+    //앞선 행의 조회가 실패한 경우에는 직접 조회
+    private CategoryResolution resolveShared(String productName, RunContext context) throws Exception {
+        String key = CategoryResolutionService.normalize(productName);
+        CompletableFuture<CategoryResolution> mine = new CompletableFuture<>();
+        CompletableFuture<CategoryResolution> shared = context.resolutions.putIfAbsent(key, mine);
+        if (shared != null) {
+            try {
+                return shared.get();
+            } catch (ExecutionException e) {
+                return categoryResolutionService.resolve(productName);
+            }
+        }
+
+        try {
+            CategoryResolution resolution = categoryResolutionService.resolve(productName);
+            mine.complete(resolution);
+            return resolution;
+        } catch (Exception e) {
+            context.resolutions.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    //2. 후보 키워드 - 카테고리별로 한번만 조회해서 로컬 기준(판매자수, 검색수)으로 거른 뒤 run 안에서 공유
+    private void selectCandidates(ExtractRow row, ExtractCondition condition, RunContext context) {
+        CandidatePool pool = context.candidatePools.get(row.getCatId());
+        if (pool == null) {
+            List<CategoryKeyword> categoryKeywordList = categoryService.getCategoryKeywordListByCategoryId(row.getCatId());
+            CandidatePool loaded = CandidatePool.of(categoryKeywordList, condition);
+            pool = context.candidatePools.putIfAbsent(row.getCatId(), loaded);
+            if (pool == null) {
+                pool = loaded;
+                log.info("후보 키워드 : cat_id {} 전체 {} 개 중 {} 개 기준 통과", row.getCatId(), loaded.totalCount(), loaded.size());
+            }
+        }
+        row.setCandidates(pool);
+    }
+
+    //3. 대표키워드 선정
+    //기준을 통과한 후보를 무작위 순서로 필요한 만큼만 꺼내 상표 체크
+    //다음 후보 여러 개를 미리 동시에 체크하되(speculation) 결과는 꺼낸 순서대로 반영하므로
+    //같은 seed 에서는 순차 체크와 같은 키워드가 선정된다
+    private void checkTrademark(ExtractRow row, ExtractCondition condition, RunContext context,
+                                ExecutorService checkPool, int maxParallel) {
+        Backup element = row.getBackup();
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        Random random = rowRandom(element);
+        CandidatePool candidates = row.getCandidates();
+        RandomOrder order = candidates.randomOrder(random);
+        Deque<PendingCheck> inFlight = new ArrayDeque<>();
+        int validCandidateCount = 0;
+        try {
+            while (validCandidateCount < VALID_CANDIDATE_COUNT) {
+
+                //강제종료 또는 앞선 행에서 사용초과
+                if (context.isSkipped(row)) {
+                    return;
+                }
+
+                String relKeyword;
+                if (condition.kiprisEnabled()) {//키프리스 사용
+                    int parallel = context.speculationWidth(VALID_CANDIDATE_COUNT - validCandidateCount, maxParallel);
+                    while (inFlight.size() < parallel && order.hasNext()) {
+                        String candidate = candidates.get(order.next()).getKeyword();
+                        inFlight.add(new PendingCheck(candidate, checkPool.submit(() -> {
+                            context.token.bindToCurrentThread();
+                            return keywordService.checkTrademark(candidate);
+                        })));
+                    }
+                    PendingCheck head = inFlight.poll();
+                    if (head == null) {
+                        break;
+                    }
+                    relKeyword = head.keyword();
+                    log.info("현재 체크중인 relkeyword >>> " + relKeyword);
+
+                    TrademarkCheck check;
+                    try {
+                        check = head.future().get();
+                    } catch (ExecutionException e) {
+                        log.info(e.getCause().toString());
+                        continue;
+                    }
+                    //결과를 사용한 키프리스 호출만 집계 (인덱스/캐시 결과, 취소된 미리 체크 제외)
+                    if (check.remote()) {
+                        row.setTrademarkChecks(row.getTrademarkChecks() + 1);
+                    }
+                    TrademarkVerdict verdict = check.verdict();
+
+                    if (verdict.quotaExceeded()) {//resultCode : 22 인경우 강제 종료(키프리스 사용 제한 초과)
+                        row.setKiprisExceeded(true);
+                        context.stopAt(row.getSequence());
+                        return;
+                    }
+                    context.recordVerdict(!verdict.registered());
+                    if (verdict.registered()) {//사용중인 상표
+                        continue;
+                    }
+                } else {
+                    if (!order.hasNext()) {
+                        break;
+                    }
+                    relKeyword = candidates.get(order.next()).getKeyword();
+                }
+
+                //유효키워드로 선정
+                element.setKeywordList(element.getKeywordList() + "," + relKeyword);
+                log.info("유효키워드는 : " + relKeyword);
+                validCandidateCount++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            //선정이 끝났거나 중단된 경우 남은 체크 취소
+            for (PendingCheck pending : inFlight) {
+                pending.future().cancel(true);
+            }
+        }
+        trademarkChecksPerRow().record(row.getTrademarkChecks());
+
+        //유효키워드가 없는 경우
+        if (element.getKeywordList().isEmpty()) {
+            element.setValidKeyword("유효한 키워드 없음");
+            element.setKeywordList("유효한 키워드 없음");
+            element.setCategory(row.getStandardKeyword());
+        } else {
+            String keywords = element.getKeywordList();
+            String[] keywordList = keywords.split(",");
+            int randomIndex = random.nextInt(keywordList.length);
+            //keywordList의 인덱스 0값이 ""이므로 인덱스 1부터 시작하도록 지정
+            if (randomIndex == 0)
+                randomIndex += 1;
+
+            log.info("유효키워드 리스트 >> " + keywords);
+            element.setValidKeyword(keywordList[randomIndex]);
+        }
+
+        stopWatch.stop();
+        log.info(" 걸린 시간은  " + stopWatch.getTotalTimeSeconds());
+        log.info("===========================================");
+
+        row.setCompleted(true);
+    }
+
+    //4. 결과 저장 - excelIndex 순서대로 backup 저장 및 progress 증가
+    private Outcome persist(BlockingQueue<ExtractRow> resultQueue, Semaphore window, RunContext context,
+                            Status status, IntConsumer checkpoint) throws Exception {
+        Map<Integer, ExtractRow> pending = new HashMap<>();
+        int next = 0;
+
+        //행 결과는 write-behind 버퍼에 모아서 batch 업데이트 (강제종료/완료시 flush)
+        BackupWriteBuffer writeBuffer = backupService.newWriteBuffer();
+        writeBuffer.onFlush(checkpoint);
+        //progress 는 모아서 redis hash 필드 증가로 반영
+        StatusProgressReporter progress = statusService.newProgressReporter(status, StatusProgressReporter.Field.FILTERING);
+        try {
+            while (next < context.limit()) {
+                //강제종료 시그널 (메모리 토큰 확인)
+                //강제종료 후에는 앞 단계가 행을 건너뛰어 다음 행이 오지 않을 수 있으므로 기다리지 않음
+                if (context.token.isCancelled()) {
+                    log.info("강제종료 시그널");
+                    context.kill();
+                    return Outcome.KILLED;
+                }
+
+                ExtractRow arrived = resultQueue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (arrived != null) {
+                    pending.put(arrived.getSequence(), arrived);
+                }
+
+                ExtractRow row;
+                while (next < context.limit() && !context.token.isCancelled() && (row = pending.remove(next)) != null) {
+                    writeBuffer.write(row.getBackup());
+                    if (row.isCompleted()) {
+                        //progress 증가
+                        progress.increment();
+                    }
+                    window.release();
+                    next++;
+                }
+                writeBuffer.flushIfDue();
+                progress.flushIfDue();
+            }
+        } finally {
+            writeBuffer.flush();
+            progress.flush();
+        }
+
+        return context.limit() < context.total ? Outcome.KIPRIS_EXCEEDED : Outcome.COMPLETED;
+    }
+
+    //한 행의 동시 상표 체크 상한 : 설정값과 키프리스 초당 호출 한도 중 작은 값
+    //호출 속도는 공유 limiter 의 acquire 가 조절하므로 worker 수로 나누지 않는다 (한 행이 1초치 이상 잡지 않도록만 제한)
+    static int speculationLimit(int maxParallel, double permitsPerSecond) {
+        int limiterBound = (int) Math.max(1, Math.ceil(permitsPerSecond));
+        return Math.max(1, Math.min(maxParallel, limiterBound));
+    }
+
+    //행의 후보 순서/유효키워드 선택용 난수 (seed 가 있으면 excelIndex 별로 고정)
+    private Random rowRandom(Backup element) {
+        if (CANDIDATE_SEED == null) {
+            return ThreadLocalRandom.current();
+        }
+        Integer excelIndex = element.getExcelIndex();
+        return new Random(CANDIDATE_SEED * 31 + (excelIndex == null ? 0 : excelIndex));
+    }
+
+    private record PendingCheck(String keyword, Future<TrademarkCheck> future) {
+    }
+
+    //행마다 유효키워드 선정까지 필요했던 키프리스 호출 횟수
+    private DistributionSummary trademarkChecksPerRow() {
+        return DistributionSummary.builder("keyword.extract.trademark-checks")
+                .description("행별 키프리스 상표 체크 횟수")
+                .register(meterRegistry);
+    }
+
+    private ExecutorService newPool(int workId, String stage, int size, List<ExecutorService> pools) {
+        ExecutorService pool = Executors.newFixedThreadPool(size,
+                new CustomizableThreadFactory("extract-" + workId + "-" + stage + "-"));
+        pools.add(pool);
+        return pool;
+    }
+
+    //파이프라인 한 번 실행 동안의 중단 상태
+    private static final class RunContext {
+
+        private final int total;
+        //키프리스 사용초과가 발생한 행. 이후 행은 처리하지 않는다
+        private final AtomicInteger stopSequence;
+        private volatile boolean killed;
+        private final CancellationToken token;
+        //정규화된 상품명별 카테고리 조회 결과
+        private final Map<String, CompletableFuture<CategoryResolution>> resolutions = new ConcurrentHashMap<>();
+        //cat_id 별 기준을 통과한 후보 키워드
+        private final Map<String, CandidatePool> candidatePools = new ConcurrentHashMap<>();
+        //상표 체크 결과 집계 (동시 체크 수 조절용)
+        private final AtomicInteger trademarkChecked = new AtomicInteger();
+        private final AtomicInteger trademarkAccepted = new AtomicInteger();
+
+        private RunContext(int total, CancellationToken token) {
+            this.total = total;
+            this.token = token;
+            this.stopSequence = new AtomicInteger(total);
+        }
+
+        private void stopAt(int sequence) {
+            stopSequence.accumulateAndGet(sequence, Math::min);
+        }
+
+        private void kill() {
+            killed = true;
+        }
+
+        private void recordVerdict(boolean accepted) {
+            trademarkChecked.incrementAndGet();
+            if (accepted) {
+                trademarkAccepted.incrementAndGet();
+            }
+        }
+
+        //남은 선정 수 / 관측된 적합 비율 만큼 동시에 체크 (적합 비율이 높으면 적게, 낮으면 많이)
+        private int speculationWidth(int remaining, int maxParallel) {
+            //관측 전에는 1/2 로 가정 (laplace)
+            double acceptanceRate = (trademarkAccepted.get() + 1.0) / (trademarkChecked.get() + 2.0);
+            int width = (int) Math.ceil(remaining / acceptanceRate);
+            return Math.max(1, Math.min(maxParallel, width));
+        }
+
+        //저장 단계가 처리해야 하는 행의 끝(미포함)
+        private int limit() {
+            return stopSequence.get();
+        }
+
+        private boolean isSkipped(ExtractRow row) {
+            return killed || token.isCancelled() || row.getSequence() > stopSequence.get();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.api.keyword.extract;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 0 ~ size-1 의 무작위 순열을 필요한 만큼만 생성 (Fisher-Yates)
+ * 자리를 바꾼 위치만 map 에 기록하므로 뽑은 개수만큼의 비용/메모리만 사용한다.
+ */
+final class RandomOrder {
+
+    private final int size;
+    private final Random random;
+    private final Map<Integer, Integer> swapped = new HashMap<>();
+    private int drawn;
+
+    RandomOrder(int size, Random random) {
+        this.size = size;
+        this.random = random;
+    }
+
+    boolean hasNext() {
+        return drawn < size;
+    }
+
+    int next() {
+        int target = drawn + random.nextInt(size - drawn);
+        int picked = swapped.getOrDefault(target, target);
+        swapped.put(target, swapped.getOrDefault(drawn, drawn));
+        swapped.remove(drawn);
+        drawn++;
+        return picked;
+    }
+}
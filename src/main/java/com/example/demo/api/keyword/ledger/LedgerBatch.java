@@ -0,0 +1,7 @@
+package com.example.demo.api.keyword.ledger;
+
+/**
+ * 원장에서 읽어 backup 으로 저장된 행 묶음 (excel_index 순서, 양끝 포함)
+ */
+public record LedgerBatch(int rowCount, int firstExcelIndex, int lastExcelIndex) {
+}
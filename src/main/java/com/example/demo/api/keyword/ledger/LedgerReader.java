@@ -0,0 +1,348 @@
+package com.example.demo.api.keyword.ledger;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * 원장 엑셀 이벤트(SAX) 방식 읽기
+ * 워크북 전체를 메모리에 올리지 않고 첫번째 시트를 한 행씩 읽어 상품번호/상품명만 전달한다.
+ * 첫 행(헤더)의 셀 수로 원장 형식을 구분한다. (2칸 : GS원장, 그 외 : 기존원장)
+ */
+public final class LedgerReader {
+
+    private LedgerReader() {
+    }
+
+    //설정 후에는 reader 생성만 하므로 공유
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    //엑셀 파일의 데이터 행(헤더 제외)을 순서대로 전달
+    public static void read(File file, String extension, Consumer<LedgerRow> consumer) throws Exception {
+        RowCollector collector = new RowCollector(consumer);
+        if (extension.equals("xls")) {
+            readHssf(file, collector);
+        } else {
+            readXssf(file, collector);
+        }
+    }
+
+    /**
+     * 업로드 파일 검증 (업로드 요청 스레드에서 호출)
+     * 파일 시그니처가 확장자와 맞는지, 첫번째 시트가 헤더 행으로 시작하는지만 확인한다.
+     * 셀 값과 공유 문자열은 읽지 않는다. (전체 읽기는 원장 읽기에서)
+     * 읽을 수 없는 파일이면 IOException
+     */
+    public static void probe(File file, String extension) throws IOException {
+        FileMagic magic;
+        try (InputStream in = FileMagic.prepareToCheckMagic(new FileInputStream(file))) {
+            magic = FileMagic.valueOf(in);
+        }
+        FileMagic expected = extension.equals("xls") ? FileMagic.OLE2 : FileMagic.OOXML;
+        if (magic != expected) {
+            throw new IOException("엑셀 파일 형식이 올바르지 않습니다. (" + extension + " : " + magic + ")");
+        }
+
+        boolean hasHeader;
+        try {
+            hasHeader = extension.equals("xls") ? startsWithHeaderHssf(file) : startsWithHeaderXssf(file);
+        } catch (Exception e) {
+            throw new IOException("엑셀 파일을 읽을 수 없습니다.", e);
+        }
+        if (!hasHeader) {
+            throw new IOException("원장 헤더 행이 없습니다.");
+        }
+    }
+
+    //xlsx, xlsm : 첫번째 시트 xml 에서 첫 row 요소가 1행인지만 확인 (공유 문자열 파트는 읽지 않음)
+    private static boolean startsWithHeaderXssf(File file) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            Iterator<InputStream> sheets = new XSSFReader(pkg).getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("시트가 없는 엑셀파일입니다.");
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(sheet);
+                try {
+                    while (reader.hasNext()) {
+                        if (reader.next() == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+                            //행 번호가 생략된 경우 첫 row 는 1행
+                            String rowNum = reader.getAttributeValue(null, "r");
+                            return rowNum == null || rowNum.equals("1");
+                        }
+                    }
+                    return false;
+                } finally {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    //xls : 첫번째 시트의 첫 셀이 0번 행인지만 확인하고 중단
+    private static boolean startsWithHeaderHssf(File file) throws Exception {
+        int[] firstRow = {-1};
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(new AbortableHSSFListener() {
+                private int sheetIndex = -1;
+
+                @Override
+                public short abortableProcessRecord(Record record) {
+                    if (record instanceof BOFRecord bof && bof.getType() == BOFRecord.TYPE_WORKSHEET) {
+                        sheetIndex++;
+                    } else if (sheetIndex == 0 && record instanceof CellValueRecordInterface cell) {
+                        firstRow[0] = cell.getRow();
+                        return 1;
+                    } else if (sheetIndex == 0 && record.getSid() == EOFRecord.sid) {
+                        return 1;
+                    }
+                    return 0;
+                }
+            });
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+        }
+        return firstRow[0] == 0;
+    }
+
+    //xlsx, xlsm : XSSFReader + SAX sheet handler
+    private static void readXssf(File file, RowCollector collector) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("시트가 없는 엑셀파일입니다.");
+            }
+
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            XMLReader parser = factory.newSAXParser().getXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                    new XssfRowHandler(collector), new RawNumberFormatter(), false));
+
+            try (InputStream sheet = sheets.next()) {
+                parser.parse(new InputSource(sheet));
+            }
+            collector.endRow();
+        }
+    }
+
+    //xls : HSSFEventFactory (첫번째 시트가 끝나면 중단)
+    private static void readHssf(File file, RowCollector collector) throws Exception {
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(new HssfRowListener(collector));
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+        } catch (HSSFUserException e) {
+            throw new IOException(e);
+        }
+        collector.endRow();
+    }
+
+    /**
+     * 셀 이벤트를 행 단위로 모아 LedgerRow 로 전달
+     */
+    private static final class RowCollector {
+
+        private final Consumer<LedgerRow> consumer;
+
+        private int productNoIndex = -1;
+        private int productIndex = -1;
+
+        private int currentRow = -1;
+        private int cellCount;
+        private String productNo;
+        private String product;
+
+        private RowCollector(Consumer<LedgerRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        private void startRow(int row) throws IOException {
+            endRow();
+            if (row > 0 && productIndex < 0) {
+                throw new IOException("원장 헤더 행이 없습니다.");
+            }
+            currentRow = row;
+            cellCount = 0;
+            productNo = null;
+            product = null;
+        }
+
+        private void cell(int col, String value) {
+            cellCount++;
+            if (col == productNoIndex) {
+                productNo = value;
+            } else if (col == productIndex) {
+                product = value;
+            }
+        }
+
+        private void endRow() {
+            if (currentRow < 0) {
+                return;
+            }
+            if (currentRow == 0) {
+                //형식에 따른 indexing
+                if (cellCount == 2) {
+                    productNoIndex = 0;
+                    productIndex = 1;
+                } else {
+                    productNoIndex = 13;
+                    productIndex = 14;
+                }
+            } else {
+                consumer.accept(new LedgerRow(currentRow, productNo, product));
+            }
+            currentRow = -1;
+        }
+    }
+
+    private static final class XssfRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowCollector collector;
+        private int lastCol;
+
+        private XssfRowHandler(RowCollector collector) {
+            this.collector = collector;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            lastCol = -1;
+            try {
+                collector.startRow(rowNum);
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            collector.endRow();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            //셀 주소가 생략된 경우 이전 셀의 다음 열
+            lastCol = cellReference == null ? lastCol + 1 : new CellReference(cellReference).getCol();
+            collector.cell(lastCol, formattedValue);
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+        }
+    }
+
+    private static final class HssfRowListener extends AbortableHSSFListener {
+
+        private final RowCollector collector;
+        private SSTRecord sst;
+        private int sheetIndex = -1;
+        private int currentRow = -1;
+
+        private HssfRowListener(RowCollector collector) {
+            this.collector = collector;
+        }
+
+        @Override
+        public short abortableProcessRecord(Record record) throws HSSFUserException {
+            switch (record.getSid()) {
+                case BOFRecord.sid:
+                    if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                        sheetIndex++;
+                    }
+                    return 0;
+                case SSTRecord.sid:
+                    sst = (SSTRecord) record;
+                    return 0;
+                case EOFRecord.sid:
+                    //첫번째 시트 끝
+                    return (short) (sheetIndex == 0 ? 1 : 0);
+                case LabelSSTRecord.sid:
+                    cell(record, sst.getString(((LabelSSTRecord) record).getSSTIndex()).getString());
+                    return 0;
+                case LabelRecord.sid:
+                    cell(record, ((LabelRecord) record).getValue());
+                    return 0;
+                case NumberRecord.sid:
+                    cell(record, NumberToTextConverter.toText(((NumberRecord) record).getValue()));
+                    return 0;
+                case BlankRecord.sid:
+                    cell(record, null);
+                    return 0;
+                default:
+                    return 0;
+            }
+        }
+
+        private void cell(Record record, String value) throws HSSFUserException {
+            if (sheetIndex != 0) {
+                return;
+            }
+            CellValueRecordInterface cell = (CellValueRecordInterface) record;
+            if (cell.getRow() != currentRow) {
+                currentRow = cell.getRow();
+                try {
+                    collector.startRow(currentRow);
+                } catch (IOException e) {
+                    throw new HSSFUserException(e.getMessage(), e);
+                }
+            }
+            collector.cell(cell.getColumn(), value);
+        }
+    }
+
+    //숫자 셀은 표시형식과 상관없이 원래 값 그대로 (상품번호가 1.23E+10, 1,234 등으로 바뀌지 않도록)
+    private static final class RawNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return NumberToTextConverter.toText(value);
+        }
+    }
+}
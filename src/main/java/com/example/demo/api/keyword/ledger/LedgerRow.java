@@ -0,0 +1,12 @@
+package com.example.demo.api.keyword.ledger;
+
+/**
+ * 원장 엑셀의 한 행 (상품번호, 상품명)
+ * 셀이 없는 경우 값은 null
+ */
+public record LedgerRow(int excelIndex, String productNo, String product) {
+
+    public boolean hasRequiredValues() {
+        return productNo != null && product != null;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.demo.api.keyword.rank;
+
+import com.example.demo.api.keyword.KeywordService;
+import com.example.demo.api.keyword.category.Category;
+import com.example.demo.api.keyword.category.CategoryService;
+import com.example.demo.common.lock.RedisLock;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 네이버 쇼핑인사이트 인기검색어 수집
+ * work 에서 조회된 카테고리 사용 횟수를 redis sorted set 에 모아두고,
+ * 주기적으로 많이 사용된 카테고리부터 최근 기간의 인기검색어를 수집해 rank 테이블에 저장한다.
+ * 요청 처리중에는 크롤링하지 않고 rank 테이블만 조회한다. (RankService)
+ */
+@Slf4j
+@Component
+public class RankHarvester {
+
+    private static final String HITS_KEY = "rank:category-hits";
+    private static final String LOCK_KEY = "rank:harvest-lock";
+    //쇼핑인사이트 인기검색어는 20개씩 25페이지 (500위)
+    private static final int PAGES = 25;
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    private final KeywordService keywordService;
+    private final CategoryService categoryService;
+    private final RankRepository rankRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisLock redisLock;
+
+    //한번에 수집할 카테고리 수 (사용 횟수 순)
+    private final int categoriesPerRun;
+    //수집 기간 (어제까지 n일)
+    private final int windowDays;
+    //한번에 저장할 카테고리 수
+    private final int batchSize;
+    //수집 후 사용 횟수에 곱하는 값 (최근 사용된 카테고리 우선)
+    private final double hitDecay;
+    private final Duration lockTtl;
+
+    //카테고리 하나의 페이지 동시 조회 (크롤링 rate limit 은 KeywordService 에서 적용)
+    private final ExecutorService fetchPool;
+
+    //redis 에 아직 반영하지 않은 카테고리별 사용 횟수
+    private final Map<String, LongAdder> pendingHits = new ConcurrentHashMap<>();
+
+    public RankHarvester(KeywordService keywordService,
+                         CategoryService categoryService,
+                         RankRepository rankRepository,
+                         StringRedisTemplate redisTemplate,
+                         RedisLock redisLock,
+                         @Value("${keyword-service.rank.fetch-parallelism:4}") int fetchParallelism,
+                         @Value("${keyword-service.rank.categories-per-run:50}") int categoriesPerRun,
+                         @Value("${keyword-service.rank.window-days:30}") int windowDays,
+                         @Value("${keyword-service.rank.batch-size:20}") int batchSize,
+                         @Value("${keyword-service.rank.hit-decay:0.5}") double hitDecay,
+                         @Value("${keyword-service.rank.lock-ttl-minutes:60}") long lockTtlMinutes) {
+        this.keywordService = keywordService;
+        this.categoryService = categoryService;
+        this.rankRepository = rankRepository;
+        this.redisTemplate = redisTemplate;
+        this.redisLock = redisLock;
+        this.categoriesPerRun = categoriesPerRun;
+        this.windowDays = windowDays;
+        this.batchSize = batchSize;
+        this.hitDecay = hitDecay;
+        this.lockTtl = Duration.ofMinutes(lockTtlMinutes);
+        this.fetchPool = Executors.newFixedThreadPool(fetchParallelism, new CustomizableThreadFactory("rank-harvest-"));
+    }
+
+    //work 에서 카테고리가 조회될 때마다 호출 (redis 반영은 flushHits 에서 모아서)
+    public void recordHit(String catId) {
+        pendingHits.computeIfAbsent(catId, key -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${keyword-service.rank.hit-flush-interval-ms:60000}")
+    public void flushHits() {
+        for (Map.Entry<String, LongAdder> entry : pendingHits.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+            try {
+                redisTemplate.opsForZSet().incrementScore(HITS_KEY, entry.getKey(), count);
+            } catch (Exception e) {
+                //다음 주기에 다시 반영
+                entry.getValue().add(count);
+                log.warn("카테고리 사용 횟수 반영 실패 : {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    //여러 노드 중 lock 을 얻은 노드 하나만 수집
+    @Scheduled(cron = "${keyword-service.rank.harvest-cron:0 0 5 * * *}")
+    public void harvest() {
+        flushHits();
+
+        if (!redisLock.tryAcquire(LOCK_KEY, lockTtl)) {
+            log.info("다른 노드에서 인기검색어 수집중");
+            return;
+        }
+        try {
+            Set<String> catIds = redisTemplate.opsForZSet().reverseRange(HITS_KEY, 0, categoriesPerRun - 1);
+            if (catIds == null || catIds.isEmpty()) {
+                return;
+            }
+
+            //쇼핑인사이트는 당일 데이터가 없으므로 어제까지
+            LocalDate endDate = LocalDate.now(ZONE).minusDays(1);
+            LocalDate startDate = endDate.minusDays(windowDays - 1);
+            log.info("인기검색어 수집 시작 : {} 개 카테고리 ({} ~ {})", catIds.size(), startDate, endDate);
+
+            List<Rank> batch = new ArrayList<>(batchSize);
+            int saved = 0;
+            int failed = 0;
+            for (String catId : catIds) {
+                Category category = categoryService.getCategoryEntityById(catId);
+                if (category == null) {
+                    redisTemplate.opsForZSet().remove(HITS_KEY, catId);
+                    continue;
+                }
+
+                try {
+                    Rank rank = new Rank();
+                    rank.setCategory(category.getName());
+                    rank.setCategoryId(catId);
+                    rank.setRankKeyword(String.join(",", fetchRankKeywords(catId, startDate, endDate)));
+                    batch.add(rank);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    //기존 rank 는 그대로 유지
+                    failed++;
+                    log.warn("인기검색어 수집 실패 : {} ({})", catId, e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    saved += save(batch);
+                }
+            }
+            saved += save(batch);
+
+            redisTemplate.opsForZSet().unionAndStore(HITS_KEY, Collections.emptyList(), HITS_KEY,
+                    Aggregate.SUM, Weights.of(hitDecay));
+            log.info("인기검색어 수집 완료 : 저장 {} 개, 실패 {} 개", saved, failed);
+        } finally {
+            redisLock.release(LOCK_KEY);
+        }
+    }
+
+    //카테고리 하나의 전체 페이지를 동시에 조회해서 순위 순으로 합침. 한 페이지라도 실패하면 예외
+    private List<String> fetchRankKeywords(String catId, LocalDate startDate, LocalDate endDate) throws Exception {
+        List<Future<List<String>>> pages = new ArrayList<>(PAGES);
+        for (int page = 1; page <= PAGES; page++) {
+            int current = page;
+            pages.add(fetchPool.submit(() -> keywordService.getKeywordRankPage(catId, startDate, endDate, current)));
+        }
+
+        List<String> keywords = new ArrayList<>(PAGES * 20);
+        try {
+            for (Future<List<String>> page : pages) {
+                keywords.addAll(page.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            for (Future<List<String>> page : pages) {
+                page.cancel(true);
+            }
+        }
+        return keywords;
+    }
+
+    private int save(List<Rank> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        rankRepository.upsertRanks(batch);
+        batch.clear();
+        return size;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchPool.shutdownNow();
+    }
+}
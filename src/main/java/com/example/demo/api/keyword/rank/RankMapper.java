@@ -9,4 +9,7 @@ public interface RankMapper {
 
     Rank getRankByCategoryId(String categoryId);
 
+    // 카테고리별 인기검색어 일괄 저장 (category_id 기준 upsert)
+    void upsertRanks(List<Rank> ranks);
+
 }
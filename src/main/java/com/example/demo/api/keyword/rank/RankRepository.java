@@ -3,6 +3,8 @@ package com.example.demo.api.keyword.rank;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 @RequiredArgsConstructor
 public class RankRepository {
@@ -12,4 +14,8 @@ public class RankRepository {
     public Rank getRankByCategoryId(String categoryId) {
         return rankMapper.getRankByCategoryId(categoryId);
     }
+
+    public void upsertRanks(List<Rank> ranks) {
+        rankMapper.upsertRanks(ranks);
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.demo.api.keyword.resolution;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 상품명 -> 카테고리 조회 결과 (work 간 공유)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryResolution {
+
+    private String normalizedName;//정규화된 상품명 (key)
+    private String wholeCategory;//쇼핑 api 전체 카테고리 경로
+    private String standardKeyword;//기본 키워드(기준 카테고리)
+    private String catId;//category 테이블에 없는 경로면 null
+    private Date resolvedAt;
+
+}
@@ -0,0 +1,15 @@
+package com.example.demo.api.keyword.resolution;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+
+@Mapper
+public interface CategoryResolutionMapper {
+
+    // 정규화된 상품명으로 조회 (since 이후 조회된 것만)
+    CategoryResolution getResolution(@Param("normalizedName") String normalizedName, @Param("since") Date since);
+
+    void upsertResolution(CategoryResolution resolution);
+}
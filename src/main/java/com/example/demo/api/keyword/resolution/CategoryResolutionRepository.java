@@ -0,0 +1,21 @@
+package com.example.demo.api.keyword.resolution;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+@RequiredArgsConstructor
+public class CategoryResolutionRepository {
+
+    private final CategoryResolutionMapper categoryResolutionMapper;
+
+    public CategoryResolution getResolution(String normalizedName, Date since) {
+        return categoryResolutionMapper.getResolution(normalizedName, since);
+    }
+
+    public void upsertResolution(CategoryResolution resolution) {
+        categoryResolutionMapper.upsertResolution(resolution);
+    }
+}
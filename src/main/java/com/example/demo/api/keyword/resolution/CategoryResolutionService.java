@@ -0,0 +1,94 @@
+package com.example.demo.api.keyword.resolution;
+
+import com.example.demo.api.keyword.KeywordService;
+import com.example.demo.api.keyword.category.Category;
+import com.example.demo.api.keyword.category.CategoryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품명 -> 카테고리 조회
+ * 정규화된 상품명 기준으로 category_resolution 테이블에 저장해두고 여러 work 에서 재사용한다.
+ * 저장된 결과가 없을때만 네이버 쇼핑 api 를 호출한다.
+ */
+@Slf4j
+@Service
+public class CategoryResolutionService {
+
+    private final CategoryResolutionRepository categoryResolutionRepository;
+    private final KeywordService keywordService;
+    private final CategoryService categoryService;
+
+    private final long ttlMillis;
+
+    private final Counter hit;
+    private final Counter miss;
+
+    public CategoryResolutionService(CategoryResolutionRepository categoryResolutionRepository,
+                                     KeywordService keywordService,
+                                     CategoryService categoryService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${keyword-service.category-resolution.ttl-days:30}") long ttlDays) {
+        this.categoryResolutionRepository = categoryResolutionRepository;
+        this.keywordService = keywordService;
+        this.categoryService = categoryService;
+        this.ttlMillis = TimeUnit.DAYS.toMillis(ttlDays);
+        this.hit = meterRegistry.counter("keyword.category-resolution", "result", "hit");
+        this.miss = meterRegistry.counter("keyword.category-resolution", "result", "miss");
+    }
+
+    //상품명 정규화 (전각/반각, 대소문자, 공백, 특수문자 차이 무시)
+    public static String normalize(String productName) {
+        String normalized = Normalizer.normalize(productName, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+        return normalized.isEmpty() ? productName.trim() : normalized;
+    }
+
+    /**
+     * 상품명의 카테고리 조회
+     * 쇼핑 api 호출이 실패하면 예외를 던진다.
+     * 최상위 카테고리부터 category 테이블에 없는 경우 catId 가 null 인 결과를 반환한다. (저장하지 않음)
+     */
+    public CategoryResolution resolve(String productName) throws Exception {
+        String normalizedName = normalize(productName);
+
+        CategoryResolution cached = categoryResolutionRepository.getResolution(normalizedName,
+                new Date(System.currentTimeMillis() - ttlMillis));
+        if (cached != null) {
+            hit.increment();
+            return cached;
+        }
+        miss.increment();
+
+        String wholeCategory = keywordService.findStandardKeyword(productName);
+        String[] splitWholeCategory = wholeCategory.split(">");
+        String standardKeyword = splitWholeCategory[splitWholeCategory.length - 1];
+
+        //경로가 category 테이블에 없으면 가장 가까운 상위 카테고리 사용
+        Category category = categoryService.findCategoryByPath(wholeCategory);
+        if (category != null && !wholeCategory.equals(category.getWholeName())) {
+            log.info("카테고리 경로 없음 : {} -> 상위 카테고리 {} 사용", wholeCategory, category.getWholeName());
+        }
+        CategoryResolution resolution = new CategoryResolution(normalizedName, wholeCategory, standardKeyword,
+                category == null ? null : category.getId(), new Date());
+
+        if (resolution.getCatId() != null) {
+            try {
+                categoryResolutionRepository.upsertResolution(resolution);
+            } catch (Exception e) {
+                log.warn("카테고리 조회 결과 저장 실패 : {}", e.getMessage());
+            }
+        }
+        return resolution;
+    }
+}
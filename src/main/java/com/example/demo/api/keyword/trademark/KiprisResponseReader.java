@@ -0,0 +1,81 @@
+package com.example.demo.api.keyword.trademark;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 키프리스 상표 검색(trademarkNameMatchSearchInfo) 응답 reader
+ * DOM 을 만들지 않고 StAX 로 읽으면서 resultCode 와 TotalSearchCount 를 찾으면 바로 중단한다.
+ */
+public final class KiprisResponseReader {
+
+    private static final String RESULT_CODE = "resultCode";
+    private static final String TOTAL_SEARCH_COUNT = "TotalSearchCount";
+
+    //설정 후에는 reader 생성만 하므로 공유
+    private static final XMLInputFactory XML_INPUT_FACTORY = createFactory();
+
+    private KiprisResponseReader() {
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * 응답에서 상표 검색 결과 추출
+     * 사용량 초과(22)인 경우 TotalSearchCount 는 읽지 않는다. (-1)
+     * resultCode 또는 TotalSearchCount 가 없으면 IOException
+     */
+    public static TrademarkVerdict read(String keyword, InputStream body) throws IOException {
+        String resultCode = null;
+        int totalSearchCount = -1;
+
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(body);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if (RESULT_CODE.equals(name)) {
+                    resultCode = reader.getElementText().trim();
+                    if (TrademarkVerdict.RESULT_CODE_QUOTA_EXCEEDED.equals(resultCode)) {
+                        break;
+                    }
+                } else if (TOTAL_SEARCH_COUNT.equals(name)) {
+                    totalSearchCount = Integer.parseInt(reader.getElementText().trim());
+                }
+                if (resultCode != null && totalSearchCount >= 0) {
+                    break;
+                }
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("키프리스 응답 파싱 실패", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+
+        if (resultCode == null) {
+            throw new IOException("키프리스 응답에 resultCode 없음");
+        }
+        if (!TrademarkVerdict.RESULT_CODE_QUOTA_EXCEEDED.equals(resultCode) && totalSearchCount < 0) {
+            throw new IOException("키프리스 응답에 TotalSearchCount 없음 (resultCode : " + resultCode + ")");
+        }
+        return new TrademarkVerdict(keyword, resultCode, totalSearchCount, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.api.keyword.trademark;
+
+/**
+ * 상표 검색 결과와 결과를 얻은 곳
+ */
+public record TrademarkCheck(TrademarkVerdict verdict, Source source) {
+
+    public enum Source {
+        INDEX,//오프라인 상표 인덱스
+        CACHE,//verdict 캐시
+        KIPRIS//키프리스 호출
+    }
+
+    //키프리스를 실제로 호출한 결과인지
+    public boolean remote() {
+        return source == Source.KIPRIS;
+    }
+}
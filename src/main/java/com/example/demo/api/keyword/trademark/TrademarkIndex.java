@@ -0,0 +1,257 @@
+package com.example.demo.api.keyword.trademark;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 등록 상표명 오프라인 인덱스 (읽기 전용)
+ * 상표 일괄 추출 파일을 정규화한 상표명으로 bloom filter + 해시 테이블 파일을 만들고(build),
+ * 그 파일을 memory-mapped 로 열어 조회한다. (open, 적재시 파싱 없음)
+ *
+ * 파일 구조 (big-endian)
+ * header : magic, version, 상표 수, hash 함수 수, bloom long 수, 해시 테이블 slot 수, 문자열 영역 크기
+ * bloom  : long[]
+ * table  : int[] (0 은 빈 slot, 그 외 문자열 offset + 1, linear probing)
+ * string : [int 길이][utf-8]...
+ */
+public final class TrademarkIndex {
+
+    private static final int MAGIC = 0x544D4958;//TMIX
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * 7 + 8;
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final int hashCount;
+    private final int bloomWords;
+    private final int tableSlots;
+    private final int bloomOffset;
+    private final int tableOffset;
+    private final int stringOffset;
+
+    private TrademarkIndex(MappedByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("상표 인덱스 파일 형식이 아님");
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.hashCount = buffer.getInt(12);
+        this.bloomWords = buffer.getInt(16);
+        this.tableSlots = buffer.getInt(20);
+        this.bloomOffset = HEADER_BYTES;
+        this.tableOffset = bloomOffset + bloomWords * 8;
+        this.stringOffset = tableOffset + tableSlots * 4;
+        if ((long) stringOffset + buffer.getLong(28) != buffer.capacity()) {
+            throw new IOException("상표 인덱스 파일 크기가 맞지 않음");
+        }
+    }
+
+    //인덱스 파일을 memory-mapped 로 열기
+    public static TrademarkIndex open(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            return new TrademarkIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 상표 일괄 추출 파일로 인덱스 파일 생성 (임시 파일에 쓴 뒤 교체)
+     * 추출 파일은 utf-8 텍스트, 한 줄에 상표 하나이며 탭으로 구분된 경우 nameColumn 번째 값을 상표명으로 사용한다.
+     * @param falsePositiveRate bloom filter 목표 오탐률
+     * @return 저장한 상표 수 (정규화 후 중복 제외)
+     */
+    public static int build(Path source, Path indexFile, int nameColumn, boolean skipHeader,
+                            double falsePositiveRate) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (first && skipHeader) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                String[] columns = line.split("\t", -1);
+                if (nameColumn < columns.length) {
+                    String normalized = normalize(columns[nameColumn]);
+                    if (!normalized.isEmpty()) {
+                        names.add(normalized);
+                    }
+                }
+            }
+        }
+
+        int n = Math.max(names.size(), 1);
+        long bloomBits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int bloomWords = Math.toIntExact((bloomBits + 63) / 64);
+        int hashCount = Math.max(1, (int) Math.round((double) bloomWords * 64 / n * Math.log(2)));
+        int tableSlots = Integer.highestOneBit(Math.max(n * 2 - 1, 1)) << 1;
+
+        long[] bloom = new long[bloomWords];
+        int[] table = new int[tableSlots];
+        List<byte[]> strings = new ArrayList<>(names.size());
+        int stringBytes = 0;
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            long hash = hash(bytes);
+
+            long bits = (long) bloomWords * 64;
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+                bloom[(int) (bit >>> 6)] |= 1L << bit;
+            }
+
+            int slot = slotOf(hash, tableSlots);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (tableSlots - 1);
+            }
+            table[slot] = stringBytes + 1;
+            strings.add(bytes);
+            stringBytes = Math.addExact(stringBytes, 4 + bytes.length);
+        }
+
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(names.size());
+            out.writeInt(hashCount);
+            out.writeInt(bloomWords);
+            out.writeInt(tableSlots);
+            out.writeInt(0);//reserved
+            out.writeLong(stringBytes);
+            for (long word : bloom) {
+                out.writeLong(word);
+            }
+            for (int slot : table) {
+                out.writeInt(slot);
+            }
+            for (byte[] bytes : strings) {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return names.size();
+    }
+
+    //상표명 정규화 (전각/반각, 대소문자, 공백, 특수문자 차이 무시)
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        return Normalizer.normalize(name, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", "");
+    }
+
+    /**
+     * 정규화된 상표명 조회
+     * bloom filter 에 없으면 바로 ABSENT, 있으면 해시 테이블에서 확인한다.
+     */
+    public Lookup lookup(String normalizedName) {
+        byte[] bytes = normalizedName.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes);
+        if (!mightContain(hash)) {
+            return Lookup.ABSENT;
+        }
+
+        int slot = slotOf(hash, tableSlots);
+        while (true) {
+            int entry = buffer.getInt(tableOffset + slot * 4);
+            if (entry == 0) {
+                return Lookup.BLOOM_FALSE_POSITIVE;
+            }
+            if (equalsAt(stringOffset + entry - 1, bytes)) {
+                return Lookup.PRESENT;
+            }
+            slot = (slot + 1) & (tableSlots - 1);
+        }
+    }
+
+    public enum Lookup {
+        PRESENT,//등록 상표 있음
+        ABSENT,//bloom filter 에 없음
+        BLOOM_FALSE_POSITIVE//bloom filter 에는 있지만 해시 테이블에 없음
+    }
+
+    private boolean mightContain(long hash) {
+        long bits = (long) bloomWords * 64;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            if ((buffer.getLong(bloomOffset + (int) (bit >>> 6) * 8) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equalsAt(int offset, byte[] bytes) {
+        if (buffer.getInt(offset) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(offset + 4 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //FNV-1a 64bit + murmur3 finalizer
+    private static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int slotOf(long hash, int tableSlots) {
+        return (int) (hash >>> 40) & (tableSlots - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long bloomBits() {
+        return (long) bloomWords * 64;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    //설정된 bloom 크기/hash 수 기준 이론 오탐률
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * size / bloomBits()), hashCount);
+    }
+}
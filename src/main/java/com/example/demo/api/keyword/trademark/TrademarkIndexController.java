@@ -0,0 +1,37 @@
+package com.example.demo.api.keyword.trademark;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/trademark/index")
+@RequiredArgsConstructor
+public class TrademarkIndexController {
+
+    private final TrademarkIndexService trademarkIndexService;
+
+    // 상표 인덱스 재적재 (추출 파일 교체 후 호출)
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Integer> reload() throws IOException {
+        int size = trademarkIndexService.reload();
+        log.info(">>>>>>> [reloadTrademarkIndex] 상표 {}건 적재", size);
+        return ResponseEntity.ok(size);
+    }
+
+    // 상표 인덱스 조회 통계 (bloom filter 오탐률 포함)
+    @GetMapping("/report")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrademarkIndexReport> report() {
+        return ResponseEntity.ok(trademarkIndexService.report());
+    }
+}
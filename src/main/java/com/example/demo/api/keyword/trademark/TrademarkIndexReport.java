@@ -0,0 +1,22 @@
+package com.example.demo.api.keyword.trademark;
+
+/**
+ * 오프라인 상표 인덱스 상태 (마지막 적재 이후 집계)
+ * @param expectedFalsePositiveRate bloom filter 크기/hash 수 기준 이론 오탐률
+ * @param observedFalsePositiveRate 인덱스에 없는 상표명 조회 중 bloom filter 를 통과한 비율
+ * @param kiprisRegisteredOnAbsent 인덱스에 없었지만 키프리스에서 등록 상표가 확인된 수 (추출 파일이 오래된 경우 증가)
+ */
+public record TrademarkIndexReport(
+        boolean loaded,
+        int size,
+        long bloomBits,
+        int hashCount,
+        long loadedAt,
+        long lookups,
+        long present,
+        long bloomFalsePositives,
+        double expectedFalsePositiveRate,
+        double observedFalsePositiveRate,
+        long kiprisRegisteredOnAbsent
+) {
+}
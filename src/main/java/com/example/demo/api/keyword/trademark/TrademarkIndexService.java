@@ -0,0 +1,161 @@
+package com.example.demo.api.keyword.trademark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 오프라인 상표 인덱스 관리
+ * 상표 일괄 추출 파일(keyword-service.trademark-index.source)로 인덱스 파일을 만들어 memory-mapped 로 적재하고,
+ * 추출 파일이 갱신되면 스케쥴 또는 관리자 요청으로 다시 만들어 통째로 교체한다.
+ * 추출 파일에는 사용중인(소멸/거절/취하/포기 제외) 상표만 있어야 한다.
+ * 인덱스에 있는 상표명은 키프리스를 호출하지 않고 부적합 처리하고, 없는 상표명만 키프리스로 확인한다.
+ * 조회 결과는 keyword.trademark-index 카운터(result)로 확인할 수 있다.
+ */
+@Slf4j
+@Service
+public class TrademarkIndexService {
+
+    private final String source;
+    private final String indexFile;
+    private final int nameColumn;
+    private final boolean skipHeader;
+    private final double falsePositiveRate;
+
+    private final AtomicReference<Loaded> current = new AtomicReference<>();
+
+    //마지막 적재 이후 집계 (report)
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder present = new LongAdder();
+    private final LongAdder bloomFalsePositives = new LongAdder();
+    private final LongAdder kiprisRegisteredOnAbsent = new LongAdder();
+
+    private final Counter presentCounter;
+    private final Counter absentCounter;
+    private final Counter bloomFalsePositiveCounter;
+    private final Counter staleCounter;
+
+    public TrademarkIndexService(MeterRegistry meterRegistry,
+                                 @Value("${keyword-service.trademark-index.source:}") String source,
+                                 @Value("${keyword-service.trademark-index.index-file:}") String indexFile,
+                                 @Value("${keyword-service.trademark-index.name-column:0}") int nameColumn,
+                                 @Value("${keyword-service.trademark-index.skip-header:false}") boolean skipHeader,
+                                 @Value("${keyword-service.trademark-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.source = source;
+        this.indexFile = indexFile.isBlank() && !source.isBlank() ? source + ".idx" : indexFile;
+        this.nameColumn = nameColumn;
+        this.skipHeader = skipHeader;
+        this.falsePositiveRate = falsePositiveRate;
+
+        this.presentCounter = meterRegistry.counter("keyword.trademark-index", "result", "present");
+        this.absentCounter = meterRegistry.counter("keyword.trademark-index", "result", "absent");
+        this.bloomFalsePositiveCounter = meterRegistry.counter("keyword.trademark-index", "result", "bloom-false-positive");
+        this.staleCounter = meterRegistry.counter("keyword.trademark-index", "result", "kipris-registered-on-absent");
+    }
+
+    private record Loaded(TrademarkIndex index, long loadedAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        if (source.isBlank()) {
+            log.info("상표 인덱스 추출 파일이 설정되지 않음 (키프리스만 사용)");
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            //적재 실패시 키프리스만 사용
+            log.error("상표 인덱스 적재 실패", e);
+        }
+    }
+
+    /**
+     * 상표 인덱스 재적재
+     * 인덱스 파일이 없거나 추출 파일보다 오래된 경우 새로 만든다.
+     * @return 적재한 상표 수
+     */
+    @Scheduled(cron = "${keyword-service.trademark-index.reload-cron:0 0 4 * * *}")
+    public synchronized int reload() throws IOException {
+        if (source.isBlank()) {
+            return 0;
+        }
+        Path sourcePath = Path.of(source);
+        Path indexPath = Path.of(indexFile);
+        if (!Files.exists(indexPath)
+                || Files.getLastModifiedTime(indexPath).compareTo(Files.getLastModifiedTime(sourcePath)) < 0) {
+            long started = System.currentTimeMillis();
+            int size = TrademarkIndex.build(sourcePath, indexPath, nameColumn, skipHeader, falsePositiveRate);
+            log.info("상표 인덱스 생성 완료 : {}건 ({} ms)", size, System.currentTimeMillis() - started);
+        }
+
+        TrademarkIndex index = TrademarkIndex.open(indexPath);
+        current.set(new Loaded(index, System.currentTimeMillis()));
+        lookups.reset();
+        present.reset();
+        bloomFalsePositives.reset();
+        kiprisRegisteredOnAbsent.reset();
+        log.info("상표 인덱스 적재 완료 : {}건, 이론 오탐률 {}", index.size(), index.expectedFalsePositiveRate());
+        return index.size();
+    }
+
+    //인덱스에 사용중인 상표가 있는지 (인덱스가 없으면 false)
+    public boolean isKnownRegistered(String keyword) {
+        Loaded loaded = current.get();
+        if (loaded == null) {
+            return false;
+        }
+        String normalized = TrademarkIndex.normalize(keyword);
+        if (normalized.isEmpty()) {
+            return false;
+        }
+
+        lookups.increment();
+        switch (loaded.index().lookup(normalized)) {
+            case PRESENT -> {
+                present.increment();
+                presentCounter.increment();
+                return true;
+            }
+            case BLOOM_FALSE_POSITIVE -> {
+                bloomFalsePositives.increment();
+                bloomFalsePositiveCounter.increment();
+            }
+            case ABSENT -> absentCounter.increment();
+        }
+        return false;
+    }
+
+    //인덱스에 없어서 키프리스로 확인한 결과 (등록 상표가 있으면 추출 파일 누락)
+    public void recordKiprisVerdict(TrademarkVerdict verdict) {
+        if (current.get() != null && verdict.registered()) {
+            kiprisRegisteredOnAbsent.increment();
+            staleCounter.increment();
+        }
+    }
+
+    public TrademarkIndexReport report() {
+        Loaded loaded = current.get();
+        if (loaded == null) {
+            return new TrademarkIndexReport(false, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        TrademarkIndex index = loaded.index();
+        long lookupCount = lookups.sum();
+        long presentCount = present.sum();
+        long falsePositives = bloomFalsePositives.sum();
+        long negatives = lookupCount - presentCount;
+        return new TrademarkIndexReport(true, index.size(), index.bloomBits(), index.hashCount(), loaded.loadedAt(),
+                lookupCount, presentCount, falsePositives, index.expectedFalsePositiveRate(),
+                negatives == 0 ? 0 : (double) falsePositives / negatives, kiprisRegisteredOnAbsent.sum());
+    }
+}
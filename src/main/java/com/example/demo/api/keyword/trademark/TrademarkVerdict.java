@@ -0,0 +1,39 @@
+package com.example.demo.api.keyword.trademark;
+
+/**
+ * 키프리스 상표 검색 결과
+ * @param resultCode 키프리스 응답 코드 (00 : 정상, 22 : 일일 사용량 초과, index : 오프라인 인덱스 결과)
+ * @param totalSearchCount 등록된 상표 수 (0 이면 사용중인 상표 없음)
+ * @param checkedAt 조회 시각 (epoch ms)
+ */
+public record TrademarkVerdict(
+        String keyword,
+        String resultCode,
+        int totalSearchCount,
+        long checkedAt
+) {
+
+    public static final String RESULT_CODE_SUCCESS = "00";
+    public static final String RESULT_CODE_QUOTA_EXCEEDED = "22";
+    public static final String RESULT_CODE_LOCAL_INDEX = "index";
+
+    //오프라인 인덱스에 등록 상표가 있는 경우 (키프리스 호출 없음)
+    public static TrademarkVerdict fromIndex(String keyword) {
+        return new TrademarkVerdict(keyword, RESULT_CODE_LOCAL_INDEX, 1, System.currentTimeMillis());
+    }
+
+    //키프리스 정상 응답
+    public boolean succeeded() {
+        return RESULT_CODE_SUCCESS.equals(resultCode);
+    }
+
+    //키프리스 api 사용초과
+    public boolean quotaExceeded() {
+        return RESULT_CODE_QUOTA_EXCEEDED.equals(resultCode);
+    }
+
+    //사용중인 상표가 존재
+    public boolean registered() {
+        return totalSearchCount > 0;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.api.keyword.trademark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 키프리스 상표 검색 결과 캐시
+ * 노드 내부 LRU -> redis(전 노드 공유) 순으로 조회하며, 두 곳 모두 없을때만 키프리스를 호출한다.
+ * 등록 상표가 없는 결과(negative)는 새로 등록될 수 있으므로 더 짧은 TTL 로 저장한다.
+ * 정상(00) 응답만 저장한다. (사용초과, 인증키 오류, 서비스 장애 등은 일시적인 상태)
+ * 적중률은 keyword.trademark-cache 카운터(tier, result)로 확인할 수 있다.
+ */
+@Slf4j
+@Component
+public class TrademarkVerdictCache {
+
+    private static final String KEY_PREFIX = "trademark-verdict:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Map<String, TrademarkVerdict> local;
+
+    private final Counter localHit;
+    private final Counter redisHit;
+    private final Counter miss;
+
+    public TrademarkVerdictCache(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                                 @Value("${keyword-service.trademark-cache.local-size:10000}") int localSize,
+                                 @Value("${keyword-service.trademark-cache.ttl-hours:720}") long ttlHours,
+                                 @Value("${keyword-service.trademark-cache.negative-ttl-hours:24}") long negativeTtlHours) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.negativeTtl = Duration.ofHours(negativeTtlHours);
+        this.local = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TrademarkVerdict> eldest) {
+                return size() > localSize;
+            }
+        };
+
+        this.localHit = meterRegistry.counter("keyword.trademark-cache", "tier", "local", "result", "hit");
+        this.redisHit = meterRegistry.counter("keyword.trademark-cache", "tier", "redis", "result", "hit");
+        this.miss = meterRegistry.counter("keyword.trademark-cache", "tier", "all", "result", "miss");
+    }
+
+    //캐시 조회. 없거나 만료된 경우 null
+    public TrademarkVerdict get(String keyword) {
+        String key = keyword.trim();
+        long now = System.currentTimeMillis();
+
+        TrademarkVerdict verdict;
+        synchronized (local) {
+            verdict = local.get(key);
+        }
+        if (verdict != null && !isExpired(verdict, now)) {
+            localHit.increment();
+            return verdict;
+        }
+
+        verdict = getFromRedis(key);
+        if (verdict != null && !isExpired(verdict, now)) {
+            redisHit.increment();
+            putLocal(key, verdict);
+            return verdict;
+        }
+
+        miss.increment();
+        return null;
+    }
+
+    //키프리스 조회 결과 저장
+    public void put(TrademarkVerdict verdict) {
+        //정상 응답이 아니면 일시적인 상태이므로 저장하지 않음
+        if (!verdict.succeeded()) {
+            return;
+        }
+        String key = verdict.keyword().trim();
+        putLocal(key, verdict);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, serialize(verdict), ttlOf(verdict));
+        } catch (Exception e) {
+            log.warn("상표 검색 결과 redis 저장 실패 : {}", e.getMessage());
+        }
+    }
+
+    private void putLocal(String key, TrademarkVerdict verdict) {
+        synchronized (local) {
+            local.put(key, verdict);
+        }
+    }
+
+    private TrademarkVerdict getFromRedis(String key) {
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            return value == null ? null : deserialize(key, value);
+        } catch (Exception e) {
+            log.warn("상표 검색 결과 redis 조회 실패 : {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Duration ttlOf(TrademarkVerdict verdict) {
+        return verdict.registered() ? ttl : negativeTtl;
+    }
+
+    private boolean isExpired(TrademarkVerdict verdict, long now) {
+        return verdict.checkedAt() + ttlOf(verdict).toMillis() < now;
+    }
+
+    //resultCode|totalSearchCount|checkedAt
+    private String serialize(TrademarkVerdict verdict) {
+        return verdict.resultCode() + "|" + verdict.totalSearchCount() + "|" + verdict.checkedAt();
+    }
+
+    private TrademarkVerdict deserialize(String keyword, String value) {
+        String[] fields = value.split("\\|", -1);
+        return new TrademarkVerdict(keyword, fields[0], Integer.parseInt(fields[1]), Long.parseLong(fields[2]));
+    }
+}
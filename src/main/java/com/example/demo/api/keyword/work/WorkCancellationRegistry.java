@@ -0,0 +1,106 @@
+package com.example.demo.api.keyword.work;
+
+import com.example.demo.common.cancel.CancellationToken;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * work 강제종료 전파
+ * 강제종료 요청은 redis pub/sub 으로 모든 consumer 노드에 전달되고,
+ * 각 노드는 해당 work 를 처리중이면 메모리 취소 토큰을 켠다.
+ * 메세지 유실에 대비해 처리중인 work 의 상태를 주기적으로 한번 더 확인한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkCancellationRegistry implements MessageListener {
+
+    private static final String CHANNEL = "work-cancel";
+    private static final int WORK_CODE_IN_KILL = -9;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final WorkService workService;
+
+    //이 노드에서 처리중인 work (같은 work 의 chunk 여러개가 동시에 처리될 수 있음)
+    private final Map<Integer, Registration> registrations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    //처리 시작시 등록 (이미 등록된 경우 같은 토큰 반환)
+    public CancellationToken register(int workId) {
+        return registrations.compute(workId, (id, registration) -> {
+            Registration current = registration == null ? new Registration() : registration;
+            current.holders++;
+            return current;
+        }).token;
+    }
+
+    //처리 종료시 해제 (등록한 횟수만큼 해제되면 제거)
+    public void unregister(int workId) {
+        registrations.computeIfPresent(workId, (id, registration) -> --registration.holders == 0 ? null : registration);
+    }
+
+    //모든 노드에 강제종료 전파
+    public void publishCancel(int workId) {
+        cancelLocal(workId);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, String.valueOf(workId));
+        } catch (Exception e) {
+            log.error("강제종료 전파 실패 workId : {}", workId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            cancelLocal(Integer.parseInt(new String(message.getBody(), StandardCharsets.UTF_8).trim()));
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 강제종료 메세지 : {}", new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+
+    //pub/sub 메세지 유실 대비
+    @Scheduled(fixedDelayString = "${keyword-service.cancel.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        registrations.forEach((workId, registration) -> {
+            if (registration.token.isCancelled()) {
+                return;
+            }
+            Work work = workService.getWorkById(workId);
+            if (work != null && work.getStatusCode() == WORK_CODE_IN_KILL) {
+                cancelLocal(workId);
+            }
+        });
+    }
+
+    private void cancelLocal(int workId) {
+        Registration registration = registrations.get(workId);
+        if (registration != null && !registration.token.isCancelled()) {
+            log.info("강제종료 시그널 workId : {}", workId);
+            registration.token.cancel();
+        }
+    }
+
+    private static final class Registration {
+
+        private final CancellationToken token = new CancellationToken();
+        //compute 안에서만 변경
+        private int holders;
+    }
+}
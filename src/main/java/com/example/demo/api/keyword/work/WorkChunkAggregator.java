@@ -0,0 +1,155 @@
+package com.example.demo.api.keyword.work;
+
+import com.example.demo.api.keyword.extract.ExtractionPipeline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.json.simple.JSONObject;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * work chunk 완료 집계
+ * chunk 완료 수를 redis hash 에 세어 여러 노드의 consumer 가 공유하고,
+ * 마지막 chunk 를 완료한 consumer 한 곳에서만 결과 엑셀을 생성하도록 한다.
+ * chunk 는 원장을 읽는 동안 등록/전송되고, 전체 chunk 수는 원장 읽기가 끝난 뒤 확정(seal)된다.
+ * 미완료 chunk 메세지는 lease 만료시 재전송할 수 있도록 함께 보관한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkChunkAggregator {
+
+    private static final String KEY_PREFIX = "work-chunk:";
+    private static final String PENDING_KEY_PREFIX = "work-chunk:pending:";
+    //chunk 처리중인 work id 목록
+    private static final String WORKS_KEY = "work-chunk:works";
+    private static final Duration KEY_TTL = Duration.ofDays(7);
+
+    private static final String FIELD_TOTAL = "total";
+    private static final String FIELD_DONE = "done";
+    private static final String FIELD_KIPRIS_EXCEEDED = "kiprisExceeded";
+    private static final String FIELD_KILLED = "killed";
+    private static final String FIELD_GENERATION = "generation";
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/work-chunk-complete.lua"), Long.class);
+    private static final RedisScript<Long> SEAL_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/work-chunk-seal.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 원장 읽기 시작 전 집계 등록 (chunk 는 읽는 동안 addChunk 로 추가)
+     * @return 이번 원장 읽기의 generation. chunk 메세지에 넣어 이전 원장 읽기의 chunk 를 구분한다
+     */
+    public String start(int workId) {
+        String key = KEY_PREFIX + workId;
+        String generation = UUID.randomUUID().toString().substring(0, 8);
+        redisTemplate.delete(List.of(key, PENDING_KEY_PREFIX + workId));
+        redisTemplate.opsForHash().putAll(key, Map.of(
+                FIELD_DONE, "0",
+                FIELD_GENERATION, generation));
+        redisTemplate.expire(key, KEY_TTL);
+        redisTemplate.opsForSet().add(WORKS_KEY, String.valueOf(workId));
+        return generation;
+    }
+
+    //현재 원장 읽기의 generation. 집계가 없으면 null
+    public String getGeneration(int workId) {
+        Object generation = redisTemplate.opsForHash().get(KEY_PREFIX + workId, FIELD_GENERATION);
+        return generation == null ? null : generation.toString();
+    }
+
+    //chunk 전송 전에 chunk 메세지 등록 (전송 후 바로 완료될 수 있음)
+    public void addChunk(int workId, int chunkIndex, Map<String, Object> chunk) {
+        String pendingKey = PENDING_KEY_PREFIX + workId;
+        redisTemplate.opsForHash().put(pendingKey, String.valueOf(chunkIndex), JSONObject.toJSONString(chunk));
+        redisTemplate.expire(pendingKey, KEY_TTL);
+    }
+
+    /**
+     * 원장 읽기 완료 후 전체 chunk 수 확정
+     * @return 모든 chunk 가 이미 완료된 경우 true (결과 엑셀 생성 담당)
+     */
+    public boolean seal(int workId, int chunkCount) {
+        Long result = redisTemplate.execute(SEAL_SCRIPT, List.of(KEY_PREFIX + workId), String.valueOf(chunkCount));
+        return result != null && result == 1;
+    }
+
+    //전체 chunk 수가 확정된 work 인지 (아니면 원장 읽기 중 중단된 work)
+    public boolean isSealed(int workId) {
+        return redisTemplate.opsForHash().hasKey(KEY_PREFIX + workId, FIELD_TOTAL);
+    }
+
+    //chunk 로 분배된 work 인지
+    public boolean exists(int workId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + workId));
+    }
+
+    //현재 generation 의 아직 완료되지 않은 chunk 인지 (중복 전달/이전 원장 읽기의 메세지 확인용)
+    public boolean isPending(int workId, String generation, int chunkIndex) {
+        return generation.equals(getGeneration(workId))
+                && redisTemplate.opsForHash().hasKey(PENDING_KEY_PREFIX + workId, String.valueOf(chunkIndex));
+    }
+
+    /**
+     * chunk 완료 처리
+     * @return 마지막 chunk 인 경우 true (결과 엑셀 생성 담당)
+     */
+    public boolean complete(int workId, String generation, int chunkIndex, ExtractionPipeline.Outcome outcome) {
+        String flag = switch (outcome) {
+            case KIPRIS_EXCEEDED -> FIELD_KIPRIS_EXCEEDED;
+            case KILLED -> FIELD_KILLED;
+            default -> "";
+        };
+        Long result = redisTemplate.execute(COMPLETE_SCRIPT,
+                List.of(KEY_PREFIX + workId, PENDING_KEY_PREFIX + workId), String.valueOf(chunkIndex), flag, generation);
+        if (result != null && result == -1) {
+            log.info("이미 완료된 chunk work id : {} , chunk : {}", workId, chunkIndex);
+        } else if (result != null && result == -2) {
+            log.info("이전 원장 읽기의 chunk work id : {} , chunk : {} ({})", workId, chunkIndex, generation);
+        }
+        return result != null && result == 1;
+    }
+
+    //앞서 처리된 chunk 에서 키프리스 사용초과 발생 여부 (이후 chunk 는 처리하지 않음)
+    public boolean isKiprisExceeded(int workId) {
+        return redisTemplate.opsForHash().hasKey(KEY_PREFIX + workId, FIELD_KIPRIS_EXCEEDED);
+    }
+
+    public boolean isKilled(int workId) {
+        return redisTemplate.opsForHash().hasKey(KEY_PREFIX + workId, FIELD_KILLED);
+    }
+
+    //chunk 처리중인 work id 목록
+    public Set<Integer> getActiveWorkIds() {
+        Set<String> members = redisTemplate.opsForSet().members(WORKS_KEY);
+        if (members == null) {
+            return Set.of();
+        }
+        return members.stream().map(Integer::valueOf).collect(Collectors.toSet());
+    }
+
+    //미완료 chunk index -> chunk 메세지(json)
+    public Map<Integer, String> getPendingChunks(int workId) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(PENDING_KEY_PREFIX + workId);
+        Map<Integer, String> pending = new HashMap<>();
+        entries.forEach((chunkIndex, message) -> pending.put(Integer.valueOf(chunkIndex.toString()), message.toString()));
+        return pending;
+    }
+
+    public void clear(int workId) {
+        redisTemplate.delete(List.of(KEY_PREFIX + workId, PENDING_KEY_PREFIX + workId));
+        redisTemplate.opsForSet().remove(WORKS_KEY, String.valueOf(workId));
+    }
+}
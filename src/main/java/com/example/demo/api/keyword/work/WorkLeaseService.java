@@ -0,0 +1,256 @@
+package com.example.demo.api.keyword.work;
+
+import com.example.demo.api.queue.producer.ProduceService;
+import com.example.demo.common.lock.NodeId;
+import com.example.demo.common.lock.RedisLock;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * work 처리 lease 및 checkpoint
+ * 처리중인 노드는 redis lease 를 주기적으로 연장(heartbeat)하고,
+ * chunk 별로 저장이 끝난 마지막 excel_index 를 checkpoint 로 남긴다.
+ * 노드가 죽어 lease 가 만료되거나 chunk 처리가 실패해 lease 만 반환되면 아무 노드에서나 chunk 메세지를 재전송하고,
+ * 다시 처리하는 노드는 checkpoint 이후 행만 처리한다.
+ * 원장 읽기 중 노드가 죽은 경우에는 work 메세지를 재전송해 원장을 처음부터 다시 읽는다.
+ */
+@Slf4j
+@Component
+public class WorkLeaseService {
+
+    private static final String LEASE_KEY_PREFIX = "work-lease:";
+    private static final String CLAIMED_KEY_PREFIX = "work-chunk:claimed:";
+    private static final String CHECKPOINT_KEY_PREFIX = "work-checkpoint:";
+    private static final String FAILURES_KEY_PREFIX = "work-chunk:failures:";
+    //원장 읽기 시작 기록 (work id -> work 메세지)
+    private static final String INGEST_CLAIMED_KEY = "work-ingest:claimed";
+    private static final Duration KEY_TTL = Duration.ofDays(7);
+    private static final String INGEST = "ingest";
+
+    private static final RedisScript<Long> RECOVER_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lease-recover.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisLock redisLock;
+    private final WorkChunkAggregator workChunkAggregator;
+    private final ProduceService produceService;
+
+    private final Duration leaseTtl;
+    private final ScheduledExecutorService heartbeat =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("work-lease-heartbeat-"));
+
+    public WorkLeaseService(StringRedisTemplate redisTemplate,
+                            RedisLock redisLock,
+                            WorkChunkAggregator workChunkAggregator,
+                            ProduceService produceService,
+                            @Value("${keyword-service.lease.ttl-ms:30000}") long leaseTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.redisLock = redisLock;
+        this.workChunkAggregator = workChunkAggregator;
+        this.produceService = produceService;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMs);
+    }
+
+    //원장 읽기/chunk 분배 lease. 다른 노드가 처리중이면 null
+    public Lease tryAcquireIngest(int workId, Map<String, Object> workMessage) {
+        Lease lease = tryAcquire(LEASE_KEY_PREFIX + workId + ":" + INGEST);
+        if (lease != null) {
+            //처리 시작 기록 (lease 가 만료되었는데 기록이 남아있으면 원장 읽기 중 중단된 work)
+            redisTemplate.opsForHash().put(INGEST_CLAIMED_KEY, String.valueOf(workId), JSONObject.toJSONString(workMessage));
+        }
+        return lease;
+    }
+
+    //원장 읽기 종료 (처리 시작 기록 삭제)
+    public void unclaimIngest(int workId) {
+        redisTemplate.opsForHash().delete(INGEST_CLAIMED_KEY, String.valueOf(workId));
+    }
+
+    //chunk 처리 lease. 다른 노드가 처리중이면 null
+    public Lease tryAcquireChunk(int workId, String generation, int chunkIndex) {
+        String field = chunkField(generation, chunkIndex);
+        Lease lease = tryAcquire(LEASE_KEY_PREFIX + workId + ":" + field);
+        if (lease != null) {
+            //처리 시작 기록 (lease 가 만료되었는데 기록이 남아있으면 처리 중 중단된 chunk)
+            String claimedKey = CLAIMED_KEY_PREFIX + workId;
+            redisTemplate.opsForHash().put(claimedKey, field, NodeId.get());
+            redisTemplate.expire(claimedKey, KEY_TTL);
+        }
+        return lease;
+    }
+
+    //chunk 처리 완료 (처리 시작 기록 삭제)
+    public void unclaimChunk(int workId, String generation, int chunkIndex) {
+        redisTemplate.opsForHash().delete(CLAIMED_KEY_PREFIX + workId, chunkField(generation, chunkIndex));
+    }
+
+    //chunk 의 저장 완료된 마지막 excel_index. 없으면 -1
+    public int getCheckpoint(int workId, String generation, int chunkIndex) {
+        Object value = redisTemplate.opsForHash().get(CHECKPOINT_KEY_PREFIX + workId, chunkField(generation, chunkIndex));
+        return value == null ? -1 : Integer.parseInt(value.toString());
+    }
+
+    public void checkpoint(int workId, String generation, int chunkIndex, int excelIndex) {
+        String key = CHECKPOINT_KEY_PREFIX + workId;
+        try {
+            redisTemplate.opsForHash().put(key, chunkField(generation, chunkIndex), String.valueOf(excelIndex));
+            redisTemplate.expire(key, KEY_TTL);
+        } catch (Exception e) {
+            //checkpoint 가 없으면 재처리시 처리된 행만 한번 더 확인하게 됨
+            log.warn("checkpoint 저장 실패 work id : {} , chunk : {} ({})", workId, chunkIndex, e.getMessage());
+        }
+    }
+
+    /**
+     * chunk 처리 실패 기록. 처리 시작 기록은 남겨두므로 lease 반환 후 recoverExpired 에서 재전송된다
+     * @return 지금까지의 실패 횟수
+     */
+    public int recordFailure(int workId, String generation, int chunkIndex) {
+        String key = FAILURES_KEY_PREFIX + workId;
+        Long failures = redisTemplate.opsForHash().increment(key, chunkField(generation, chunkIndex), 1);
+        redisTemplate.expire(key, KEY_TTL);
+        return failures == null ? 1 : failures.intValue();
+    }
+
+    //work 종료시 lease 관련 키 삭제
+    public void clear(int workId) {
+        redisTemplate.delete(List.of(CLAIMED_KEY_PREFIX + workId, CHECKPOINT_KEY_PREFIX + workId,
+                FAILURES_KEY_PREFIX + workId));
+    }
+
+    //lease 가 만료된 원장 읽기 work 및 처리중 chunk 재전송
+    @Scheduled(fixedDelayString = "${keyword-service.lease.recover-interval-ms:15000}")
+    public void recoverExpired() {
+        recoverExpiredIngests();
+        try {
+            for (int workId : workChunkAggregator.getActiveWorkIds()) {
+                if (!workChunkAggregator.exists(workId)) {
+                    //집계 키가 만료된 work
+                    workChunkAggregator.clear(workId);
+                    continue;
+                }
+                String generation = workChunkAggregator.getGeneration(workId);
+                if (generation == null) {
+                    continue;
+                }
+                for (Map.Entry<Integer, String> chunk : workChunkAggregator.getPendingChunks(workId).entrySet()) {
+                    String field = chunkField(generation, chunk.getKey());
+                    Long recovered = redisTemplate.execute(RECOVER_SCRIPT,
+                            List.of(LEASE_KEY_PREFIX + workId + ":" + field, CLAIMED_KEY_PREFIX + workId), field);
+                    if (recovered != null && recovered == 1) {
+                        log.info("lease 만료 chunk 재전송 work id : {} , chunk : {}", workId, chunk.getKey());
+                        JSONObject message = (JSONObject) new JSONParser().parse(chunk.getValue());
+                        produceService.sendChunkToQueue(message);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("lease 만료 chunk 확인 실패 : {}", e.getMessage());
+        }
+    }
+
+    //원장 읽기 중 노드가 죽은 work 는 work 메세지를 다시 보내 처음부터 읽게 함
+    //(중단 직후 다시 전달된 메세지는 lease 가 남아있어 건너뛰므로 여기서 재전송)
+    private void recoverExpiredIngests() {
+        try {
+            Map<Object, Object> claimed = redisTemplate.opsForHash().entries(INGEST_CLAIMED_KEY);
+            for (Map.Entry<Object, Object> entry : claimed.entrySet()) {
+                String workId = entry.getKey().toString();
+                Long recovered = redisTemplate.execute(RECOVER_SCRIPT,
+                        List.of(LEASE_KEY_PREFIX + workId + ":" + INGEST, INGEST_CLAIMED_KEY), workId);
+                if (recovered == null || recovered != 1) {
+                    continue;
+                }
+                log.info("lease 만료 work 재전송 work id : {}", workId);
+                try {
+                    JSONObject message = (JSONObject) new JSONParser().parse(entry.getValue().toString());
+                    produceService.sendWorkToQueue(message);
+                } catch (Exception e) {
+                    //다음 주기에 다시 시도
+                    redisTemplate.opsForHash().put(INGEST_CLAIMED_KEY, workId, entry.getValue().toString());
+                    throw e;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("lease 만료 work 확인 실패 : {}", e.getMessage());
+        }
+    }
+
+    //chunk 별 lease/처리 기록 구분 (이전 원장 읽기에서 전송된 chunk 와 섞이지 않도록 generation 포함)
+    private static String chunkField(String generation, int chunkIndex) {
+        return generation + ":" + chunkIndex;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    private Lease tryAcquire(String key) {
+        if (!redisLock.tryAcquire(key, leaseTtl)) {
+            return null;
+        }
+        return new Lease(key);
+    }
+
+    /**
+     * 획득한 lease. 반환(close)할 때까지 ttl 의 1/3 주기로 연장한다
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String key;
+        private final ScheduledFuture<?> renewal;
+        private volatile boolean lost;
+
+        private Lease(String key) {
+            this.key = key;
+            long interval = Math.max(1, leaseTtl.toMillis() / 3);
+            this.renewal = heartbeat.scheduleWithFixedDelay(this::renew, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        private void renew() {
+            try {
+                if (!redisLock.renew(key, leaseTtl)) {
+                    log.warn("lease 만료 : {}", key);
+                    lost = true;
+                    renewal.cancel(false);
+                }
+            } catch (Exception e) {
+                //일시적인 redis 장애는 다음 주기에 다시 시도
+                log.warn("lease 연장 실패 : {} ({})", key, e.getMessage());
+            }
+        }
+
+        //다른 노드로 넘어간 lease (이 노드의 처리 결과는 집계하지 않음)
+        public boolean isLost() {
+            return lost;
+        }
+
+        @Override
+        public void close() {
+            renewal.cancel(false);
+            try {
+                redisLock.release(key);
+            } catch (Exception e) {
+                log.warn("lease 반환 실패 : {} ({})", key, e.getMessage());
+            }
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.example.demo.api.queue.consumer;
 
 import com.example.demo.api.keyword.KeywordService;
-import com.example.demo.api.keyword.apicount.ApiCount;
-import com.example.demo.api.keyword.apicount.ApiCountService;
 import com.example.demo.api.keyword.backup.Backup;
 import com.example.demo.api.keyword.backup.BackupService;
-import com.example.demo.api.keyword.category.CategoryKeyword;
-import com.example.demo.api.keyword.category.CategoryService;
+import com.example.demo.api.keyword.extract.ExtractCondition;
+import com.example.demo.api.keyword.extract.ExtractionPipeline;
+import com.example.demo.api.keyword.ledger.LedgerBatch;
 import com.example.demo.api.keyword.work.Work;
+import com.example.demo.api.keyword.work.WorkCancellationRegistry;
+import com.example.demo.api.keyword.work.WorkChunkAggregator;
+import com.example.demo.api.keyword.work.WorkLeaseService;
 import com.example.demo.api.keyword.work.WorkService;
+import com.example.demo.api.queue.producer.ProduceService;
 import com.example.demo.api.status.Status;
 import com.example.demo.api.status.StatusService;
+import com.example.demo.common.cancel.CancellationToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.json.simple.JSONObject;
@@ -19,13 +23,12 @@ import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StopWatch;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -45,14 +48,25 @@ public class WorkMessageListener {
     private static final int WORK_CODE_IN_SUCCESS = 1;
     private static final int WORK_CODE_IN_FAIL = 3;
     private static final int WORK_CODE_IN_KILL = -9;
-    private static final int VALID_CANDIDATE_COUNT = 4;
+    private static final long EXCEL_RETRY_INTERVAL_MS = 3000;
+
+    //chunk 하나의 행 수
+    @Value("${keyword-service.chunk.size:500}")
+    private int CHUNK_SIZE;
+
+    //chunk 하나의 최대 처리 시도 수 (넘으면 work 실패)
+    @Value("${keyword-service.chunk.max-attempts:3}")
+    private int CHUNK_MAX_ATTEMPTS;
 
-    private final BackupService backupService;
     private final KeywordService keywordService;
     private final StatusService statusService;
     private final WorkService workService;
-    private final CategoryService categoryService;
-    private final ApiCountService apiCountService;
+    private final ExtractionPipeline extractionPipeline;
+    private final WorkCancellationRegistry workCancellationRegistry;
+    private final WorkChunkAggregator workChunkAggregator;
+    private final ProduceService produceService;
+    private final BackupService backupService;
+    private final WorkLeaseService workLeaseService;
 
 
     @RabbitListener(queues = "keyword")
@@ -74,6 +88,7 @@ public class WorkMessageListener {
         int searchCount = Integer.parseInt(String.valueOf(data.get("searchCount")));
 
         Work work = workService.getWorkById(workId);
+        String useKipris = String.valueOf(data.get("useKipris"));
 
         //상태 값이 대기중인 경우만 추출 수행
         if(work.getStatusCode()==STATUS_CODE_IN_WAIT){
@@ -81,24 +96,51 @@ public class WorkMessageListener {
             work.setDownloadName("");
             workService.updateWork(work);
 
-            String useKipris = String.valueOf(data.get("useKipris"));
             log.info("work id : " + workId + " , 키프리스 사용여부 : " + useKipris);
-            extractValidKeyword(workId, 1, sellerCountMin,sellerCountMax,searchCount,useKipris);
+            ingest(data, workId, false, sellerCountMin, sellerCountMax, searchCount, useKipris);
+        }
+        else if(work.getStatusCode()==STATUS_CODE_IN_PROGRESS){//처리 중 중단된 work 의 메세지가 다시 전달된 경우
+            if (workChunkAggregator.isSealed(workId)) {
+                //원장 읽기 이후 - 중단된 chunk 는 lease 만료시 checkpoint 부터 다시 처리됨
+                log.info("work id : " + workId + " , 이미 chunk 로 분배된 work");
+                return;
+            }
+            //원장 읽기 중 중단 - 전송된 chunk 와 저장된 backup 을 지우고 처음부터
+            log.info("work id : " + workId + " , 원장 읽기부터 재시작");
+            ingest(data, workId, true, sellerCountMin, sellerCountMax, searchCount, useKipris);
         }
-        //FIXME 중간의 오류로 재시도하는 코드들과 분류해야함(아직 불완전)
-        /*else if(work.getStatusCode()==2){//프로그램 중반에 큐가 종료된경우 실패처리
-
-            Status status = statusService.getStatusById((long) workId);
-            status.setStatusCode(3);//현재까지 진행한 파일을 엑셀변환 작업으로 이동시킴
 
-            String useKipris = String.valueOf(data.get("useKipris"));
-            log.info("work id : " + workId + " , 키프리스 사용여부 : " + useKipris);
-            extractValidKeyword(workId, 1, sellerCountMin,sellerCountMax,searchCount,useKipris);
-        }*/
+    }
 
+    //원장 읽기 및 chunk 분배 (다른 노드에서 처리중이면 건너뜀)
+    //처리중인 노드가 죽으면 lease 만료 후 WorkLeaseService.recoverExpired 에서 work 메세지를 재전송
+    private void ingest(Map<String, Object> message, int workId, boolean restart
+                        ,int sellerCountMin, int sellerCountMax
+                        ,int searchCount, String useKipris) throws Exception {
+        WorkLeaseService.Lease lease = workLeaseService.tryAcquireIngest(workId, message);
+        if (lease == null) {
+            log.info("work id : " + workId + " , 다른 노드에서 처리중");
+            return;
+        }
+        try (lease) {
+            try {
+                if (restart) {
+                    workChunkAggregator.clear(workId);
+                    workLeaseService.clear(workId);
+                    backupService.deleteBackupsByWorkId(workId);
+                }
+                extractValidKeyword(workId, 1, sellerCountMin,sellerCountMax,searchCount,useKipris);
+            } finally {
+                //lease 반환 전에 기록 삭제 (예외로 끝난 경우는 메세지 재시도에 맡김)
+                workLeaseService.unclaimIngest(workId);
+            }
+        } finally {
+            workCancellationRegistry.unregister(workId);
+        }
     }
 
     //유효 키워드 추출
+    //원장을 읽는 동안 저장된 행을 CHUNK_SIZE 행씩 chunk 큐에 전송 (원장 읽기가 끝나기 전에 추출 시작)
     public void extractValidKeyword(int workId, int excelIndex
                                     ,int sellerCountMin, int sellerCountMax
                                     ,int searchCount, String useKipris) throws Exception {
@@ -107,36 +149,22 @@ public class WorkMessageListener {
         Status status = statusService.getStatusById((long) workId);
         Work work = workService.getWorkById(workId);
 
-        String resultCode = "";
+        //강제종료 토큰 (redis pub/sub 으로 전달받음)
+        CancellationToken token = workCancellationRegistry.register(workId);
 
-        List<Backup> dataList;
         //////////////////////////파일 추출///////////////////////////////////////
         if (status.getStatusCode() != STATUS_CODE_IN_RUNNING) {//엑셀 생성중에 에러난 케이스 필터링용 조건문(바로 엑셀 변환으로 건너뜀)
 
+            ChunkDispatcher dispatcher = new ChunkDispatcher(workId, token, sellerCountMin, sellerCountMax, searchCount, useKipris);
+            int rowCount;
             try {
 
-                statusService.saveOrUpdateStatus(status);
-
-                //파일명 설정
-                String filename = status.getFilename();
-                String fileHashCode = work.getFileHashcode();
-
-                //excel -> object
-                dataList = keywordService.excelToObject(REMOTE_INPUT_FILE_PATH + fileHashCode+filename, workId);
-
-                //강제종료 시그널
-                if(work.getStatusCode() == WORK_CODE_IN_KILL){
-                    statusService.deleteStatus(status);
-                    log.info("강제종료 시그널");
-                    return;
-                }
-
-                //status 초기 설정
+                //status 초기 설정 (총량은 chunk 를 전송할 때마다 증가)
                 status.setStatusCode(STATUS_CODE_IN_PROGRESS);
-                status.setFilteringTotal(dataList.size());
+                status.setFilteringTotal(0);
                 status.setFilteringProgress(excelIndex - 1);
                 status.setExcelProgress(0);
-                status.setExcelTotal(dataList.size());
+                status.setExcelTotal(0);
                 statusService.saveOrUpdateStatus(status);
 
                 //work 초기 설정
@@ -144,189 +172,290 @@ public class WorkMessageListener {
                 work.setDownloadName("");
                 workService.updateWork(work);
 
-                //엑셀 실패시 재시도 횟수 설정
-                status.setExcelConvertAttempt(0);
+                //파일명 설정
+                String filename = status.getFilename();
+                String fileHashCode = work.getFileHashcode();
+
+                //excel -> db, 저장된 행은 바로 chunk 로 전송
+                dispatcher.generation = workChunkAggregator.start(workId);
+                rowCount = keywordService.excelToObject(REMOTE_INPUT_FILE_PATH + fileHashCode+filename, workId, dispatcher);
+                dispatcher.flush();
+
+                //엑셀 실패시 재시도 횟수 초기화 (chunk progress 를 덮어쓰지 않도록 필드만 변경)
+                if (status.getExcelConvertAttempt() > 0) {
+                    statusService.incrementProgress((long) workId, "excelConvertAttempt", -status.getExcelConvertAttempt());
+                    status.setExcelConvertAttempt(0);
+                }
 
             } catch (Exception e) {
+                //이미 전송된 chunk 의 progress 를 덮어쓰지 않도록 재시도 횟수 필드만 변경
+                statusService.incrementProgress((long) workId, "excelConvertAttempt", 1);
                 status.setExcelConvertAttempt(status.getExcelConvertAttempt() + 1);
-                statusService.saveOrUpdateStatus(status);
                 if (status.getExcelConvertAttempt() == STATUS_CODE_IN_RUNNING) {//종료 시점
                     work.setStatusCode(WORK_CODE_IN_FAIL);
                     work.setEndTime(new Date());
                     workService.updateWork(work);
 
+                    //이미 전송된 chunk 는 처리하지 않음
+                    workChunkAggregator.clear(workId);
+                    workLeaseService.clear(workId);
+
                     //종료되면 status 삭제
                     Thread.sleep(2000);
                     statusService.deleteStatus(status);
                 }
                 throw new Exception();
             }
+            log.info("work id : " + workId + " , 원장 " + rowCount + "행, chunk " + dispatcher.chunkCount + "개 전송");
+
+            //원장을 읽는 동안 chunk 가 재시도 한도까지 실패한 경우
+            if (workService.getWorkById(workId).getStatusCode() == WORK_CODE_IN_FAIL) {
+                workChunkAggregator.clear(workId);
+                workLeaseService.clear(workId);
+                return;
+            }
 
-            ////추출 작업
-            for (Backup element : dataList) {
+            if (dispatcher.chunkCount > 0) {
+                //전송한 chunk 수 확정. 그 전에 모든 chunk 가 완료되었으면 여기서 결과 엑셀 생성 (강제종료 포함)
+                if (workChunkAggregator.seal(workId, dispatcher.chunkCount)) {
+                    finishChunkedWork(workId);
+                }
+                return;
+            }
+            workChunkAggregator.clear(workId);
+
+            //강제종료 시그널 (토큰 등록 전에 요청된 강제종료는 work 상태로 확인)
+            if(token.isCancelled() || workService.getWorkById(workId).getStatusCode() == WORK_CODE_IN_KILL){
+                statusService.deleteStatus(status);
+                log.info("강제종료 시그널");
+                return;
+            }
+        }
 
-                //네이버 일일 호출 횟수량 체크를 위함
-                //키워드 추출 작업당 업데이트
-                ApiCount apiCountObj = apiCountService.getApiCountById(1);
-                int apiCount = apiCountObj.getUseCount();
-                log.info("api 사용횟수 >> " + apiCount);
-                apiCountObj.setUseCount(apiCount+1);
-                apiCountService.updateApiCount(apiCountObj);
+        makeResultAndFinish(status, work, "");
+    }
 
-                //work, status를 매번 조회하여 종료시그널을 찾아내기 위함
-                status = statusService.getStatusById((long)workId);
-                work = workService.getWorkById(workId);
+    /**
+     * 원장 저장 묶음을 모아 CHUNK_SIZE 행 이상이 되면 chunk 로 전송 (excel_index 순서)
+     * chunk 경계는 저장 묶음 단위이므로 chunk 크기는 CHUNK_SIZE 보다 조금 클 수 있다.
+     */
+    private final class ChunkDispatcher implements Consumer<LedgerBatch> {
+
+        private final int workId;
+        private final CancellationToken token;
+        private final int sellerCountMin;
+        private final int sellerCountMax;
+        private final int searchCount;
+        private final String useKipris;
+
+        //이번 원장 읽기의 generation (WorkChunkAggregator.start)
+        private String generation;
+        private int chunkCount;
+        //아직 전송하지 않은 행
+        private int rows;
+        private int excelIndexFrom;
+        private int excelIndexTo;
+
+        private ChunkDispatcher(int workId, CancellationToken token, int sellerCountMin, int sellerCountMax,
+                                int searchCount, String useKipris) {
+            this.workId = workId;
+            this.token = token;
+            this.sellerCountMin = sellerCountMin;
+            this.sellerCountMax = sellerCountMax;
+            this.searchCount = searchCount;
+            this.useKipris = useKipris;
+        }
 
-                //강제종료 시그널
-                if(work.getStatusCode() == WORK_CODE_IN_KILL){
-                    statusService.deleteStatus(status);
-                    log.info("강제종료 시그널");
-                    return;
+        @Override
+        public void accept(LedgerBatch batch) {
+            if (rows == 0) {
+                excelIndexFrom = batch.firstExcelIndex();
+            }
+            rows += batch.rowCount();
+            excelIndexTo = batch.lastExcelIndex();
+            if (rows >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        //남은 행 전송 (강제종료 이후에는 전송하지 않음)
+        private void flush() {
+            if (rows == 0 || token.isCancelled()) {
+                rows = 0;
+                return;
+            }
+            Map<String, Object> chunk = ProduceService.chunkMessage(workId, generation, chunkCount, excelIndexFrom, excelIndexTo,
+                    sellerCountMin, sellerCountMax, searchCount, useKipris);
+            //집계 등록 후 전송 (전송 후 바로 완료되는 chunk 가 있을 수 있음)
+            workChunkAggregator.addChunk(workId, chunkCount, chunk);
+            statusService.incrementTotal((long) workId, rows);
+            produceService.sendChunkToQueue(chunk);
+            chunkCount++;
+            rows = 0;
+        }
+    }
+
+    @RabbitListener(queues = "${spring.rabbitmq.chunk-queue-name:keyword-chunk}")
+    public void receiveChunk(Message delivery) throws Exception {
+        String message = new String(delivery.getBody(), StandardCharsets.UTF_8);
+
+        JSONObject data = parseJson(message);
+        if (data == null) {
+            log.error("JSON 데이터 파싱 실패: {}", message);
+            return;
+        }
+
+        int workId = Integer.parseInt(String.valueOf(data.get("workId")));
+        String generation = String.valueOf(data.get("generation"));
+        int chunkIndex = Integer.parseInt(String.valueOf(data.get("chunkIndex")));
+        int excelIndexFrom = Integer.parseInt(String.valueOf(data.get("excelIndexFrom")));
+        int excelIndexTo = Integer.parseInt(String.valueOf(data.get("excelIndexTo")));
+        ExtractCondition condition = new ExtractCondition(
+                Integer.parseInt(String.valueOf(data.get("sellerCountMin"))),
+                Integer.parseInt(String.valueOf(data.get("sellerCountMax"))),
+                Integer.parseInt(String.valueOf(data.get("searchCount"))),
+                String.valueOf(data.get("useKipris")));
+        log.info("work id : {} , chunk {} ({} ~ {}) 수신", workId, chunkIndex, excelIndexFrom, excelIndexTo);
+
+        //중복 전달된 메세지 또는 원장을 다시 읽기 전에 전송된 chunk (확인 후 버림)
+        if (!workChunkAggregator.isPending(workId, generation, chunkIndex)) {
+            log.info("work id : {} , 이미 완료되었거나 이전 원장 읽기의 chunk {} ({})", workId, chunkIndex, generation);
+            return;
+        }
+        WorkLeaseService.Lease lease = workLeaseService.tryAcquireChunk(workId, generation, chunkIndex);
+        if (lease == null) {
+            log.info("work id : {} , 다른 노드에서 처리중인 chunk {}", workId, chunkIndex);
+            return;
+        }
+
+        boolean last;
+        try (lease) {
+            ExtractionPipeline.Outcome outcome = null;
+            Exception failure = null;
+            CancellationToken token = workCancellationRegistry.register(workId);
+            try {
+                outcome = extractChunk(workId, generation, chunkIndex, excelIndexFrom, excelIndexTo, condition, token);
+            } catch (Exception e) {
+                //행 단위 오류는 파이프라인에서 처리되므로 여기까지 온 예외는 DB/redis 장애
+                log.error("chunk 처리 실패 work id : {} ({} ~ {})", workId, excelIndexFrom, excelIndexTo, e);
+                failure = e;
+            } finally {
+                workCancellationRegistry.unregister(workId);
+            }
+
+            //처리 도중 lease 가 만료되어 다른 노드로 넘어간 경우 집계는 그 노드에서
+            if (lease.isLost()) {
+                log.warn("work id : {} , lease 가 만료된 chunk {}", workId, chunkIndex);
+                return;
+            }
+            if (failure != null) {
+                //완료 처리하지 않고 lease 만 반환 -> lease 만료 확인시 checkpoint 부터 다시 처리
+                int failures = workLeaseService.recordFailure(workId, generation, chunkIndex);
+                if (failures >= CHUNK_MAX_ATTEMPTS) {
+                    log.error("work id : {} , chunk {} {}회 실패로 work 실패 처리", workId, chunkIndex, failures);
+                    failChunkedWork(workId);
                 }
+                return;
+            }
+            last = workChunkAggregator.complete(workId, generation, chunkIndex, outcome);
+            workLeaseService.unclaimChunk(workId, generation, chunkIndex);
+        }
+
+        //마지막 chunk 를 완료한 consumer 에서 결과 엑셀 생성
+        if (last) {
+            finishChunkedWork(workId);
+        }
+    }
+
+    //chunk 범위의 행 추출
+    //checkpoint 가 있으면 그 이후 행부터, 이미 저장된 행은 제외 (외부 api 재호출 방지)
+    private ExtractionPipeline.Outcome extractChunk(int workId, String generation, int chunkIndex,
+                                                    int excelIndexFrom, int excelIndexTo,
+                                                    ExtractCondition condition, CancellationToken token) throws Exception {
+        //앞서 처리된 chunk 에서 키프리스 사용초과
+        if (workChunkAggregator.isKiprisExceeded(workId)) {
+            return ExtractionPipeline.Outcome.KIPRIS_EXCEEDED;
+        }
+        //강제종료 시그널 (토큰 등록 전에 요청된 강제종료는 work 상태로 확인)
+        if (token.isCancelled() || workService.getWorkById(workId).getStatusCode() == WORK_CODE_IN_KILL) {
+            return ExtractionPipeline.Outcome.KILLED;
+        }
+        Status status = statusService.getStatusById((long) workId);
+        if (status == null) {
+            return ExtractionPipeline.Outcome.KILLED;
+        }
+
+        int checkpoint = workLeaseService.getCheckpoint(workId, generation, chunkIndex);
+        int from = Math.max(excelIndexFrom, checkpoint + 1);
+        if (from > excelIndexTo) {
+            return ExtractionPipeline.Outcome.COMPLETED;
+        }
+        List<Backup> dataList = backupService.getBackupsByExcelIndexRange(workId, from, excelIndexTo);
+        dataList.removeIf(backup -> backup.getValidKeyword() != null && !backup.getValidKeyword().isEmpty());
+        if (from > excelIndexFrom) {
+            log.info("work id : {} , chunk {} checkpoint {} 이후 {}행 재처리", workId, chunkIndex, checkpoint, dataList.size());
+        }
+
+        return extractionPipeline.run(workId, dataList, condition, status, token,
+                excelIndex -> workLeaseService.checkpoint(workId, generation, chunkIndex, excelIndex));
+    }
+
+    //모든 chunk 완료 후 결과 엑셀 생성
+    private void finishChunkedWork(int workId) throws Exception {
+        try {
+            //chunk 들의 progress 가 반영된 최신 status
+            Status status = statusService.getStatusById((long) workId);
+            Work work = workService.getWorkById(workId);
 
-                try {
-
-                    //상품명과 번호 필수 값이 부족할때 패스
-                    if (element.getProduct().equals("필수값부족") &&
-                            element.getProductNo().equals("필수값부족")) {
-                        log.info("엑셀 필수값 부족");
-                        element.setValidKeyword("필수값 부족");
-                        element.setKeywordList("필수값 부족");
-                        element.setCategory("필수값 부족");
-                        backupService.updateBackup(element);
-                        continue;
-                    }
-
-                    StopWatch stopWatch = new StopWatch();
-                    stopWatch.start();
-
-                    //////////// 본격적인 추출 로직
-                    //1. 기본 키워드 값 + catId 찾고 저장
-                    //에러 발생시 pass
-                    String standardKeyword;
-                    String wholeCategory;
-                    try {
-                        wholeCategory = keywordService.findStandardKeyword(element.getProduct());
-                        String [] splitWholeCategory = wholeCategory.split(">");
-                        standardKeyword = splitWholeCategory[splitWholeCategory.length-1];
-
-                    } catch (Exception e) {
-                        log.info(e.toString());
-                        log.info("API 비정상 접근");
-                        element.setValidKeyword("API 비정상 접근");
-                        element.setKeywordList("API 비정상 접근");
-                        element.setCategory("API 비정상 접근");
-                        backupService.updateBackup(element);
-                        continue;
-                    }
-                    log.info("현재 상품이름은  : " + element.getProduct());
-                    log.info("기본 키워드(기준 카테고리) : " + standardKeyword);
-
-
-                    //// CHECK : '카테고리/카테고리'형태의 카테고리를 포함한 상품의 경우 상품명 자체에 카테고리를 포함하지 않을 가능성이 큼
-                    // 카테고리 값이 상품명에 포함되어있는지 체크
-                    if(!element.getProduct().contains(standardKeyword)){
-                        log.info("카테고리값이 상품명에 포함되어있지 않음");
-                        element.setValidKeyword("카테고리값이 상품명에 포함되어있지 않음");
-                        element.setKeywordList("카테고리값이 상품명에 포함되어있지 않음");
-                        element.setCategory("카테고리값이 상품명에 포함되어있지 않음");
-                        backupService.updateBackup(element);
-                        continue;
-                    }
-
-
-                    String catId = categoryService.getCategoryEntityByWholeName(wholeCategory).getId();
-                    element.setCategory(standardKeyword);
-                    backupService.updateBackup(element);
-
-                    log.info("기본 키워드의 cat_id : " + catId);
-
-                    //////// 로직 3번
-                    // CategoryKeyword 리스트 추출
-                    List<CategoryKeyword> categoryKeywordList = categoryService.getCategoryKeywordListByCategoryId(catId);
-                    // 리스트 무작위 섞기
-                    Collections.shuffle(categoryKeywordList);
-
-                    // 3. 대표키워드 선정
-                    //후보키워드 선정 최대 갯수 산정 변수
-                    int validCandidateCount = 0;
-                    for(CategoryKeyword categoryKeyword : categoryKeywordList){
-
-                        String relKeyword = categoryKeyword.getKeyword();
-
-                        //강제종료 시그널
-                        if(work.getStatusCode() == WORK_CODE_IN_KILL){
-                            statusService.deleteStatus(status);
-                            log.info("강제종료 시그널");
-                            return;
-                        }
-
-                        try {
-                            if (useKipris.equals("사용")) {//키프리스 사용
-                                resultCode = keywordService.isValidKeyword(categoryKeyword,sellerCountMin,sellerCountMax,searchCount);
-                            } else {
-                                resultCode = keywordService.isValidKeywordWithoutKipris(categoryKeyword,sellerCountMin,sellerCountMax,searchCount);
-                            }
-                            log.info("resultCode 체크 >>> " + resultCode);
-                        } catch (Exception e) {
-                            continue;
-                        }
-
-                        if (resultCode.equals("사용정지")) {
-                            break;
-                        } else if (resultCode.equals("적합")) {//유효키워드로 선정
-                            element.setKeywordList(element.getKeywordList() +","+relKeyword);
-                            log.info("유효키워드는 : " + relKeyword);
-                            backupService.updateBackup(element);
-                            if(validCandidateCount == VALID_CANDIDATE_COUNT){
-                                break;
-                            }
-                            validCandidateCount++;
-                        }
-                    }
-
-                    if (resultCode.equals("사용정지")) {//resultCode : 22 인경우 강제 종료(키프리스 사용 제한 초과)
-                        break;
-                    }
-
-                    //유효키워드가 없는 경우
-                    if (element.getKeywordList().isEmpty()) {
-                        element.setValidKeyword("유효한 키워드 없음");
-                        element.setKeywordList("유효한 키워드 없음");
-                        element.setCategory(standardKeyword);
-                    }else {
-                        String keywords = element.getKeywordList();
-                        String [] keywordList = keywords.split(",");
-                        double random = Math.random();
-                        int randomIndex = (int)(random*keywordList.length);
-                        //keywordList의 인덱스 0값이 ""이므로 인덱스 1부터 시작하도록 지정
-                        if(randomIndex==0)
-                            randomIndex+=1;
-
-                        log.info("유효키워드 리스트 >> " + keywords);
-
-                        element.setValidKeyword(keywordList[randomIndex]);
-                        backupService.updateBackup(element);
-                    }
-
-                    stopWatch.stop();
-                    log.info(" 걸린 시간은  " + stopWatch.getTotalTimeSeconds());
-                    log.info("===========================================");
-
-                    backupService.updateBackup(element);
-                    //progress 증가
-                    status.setFilteringProgress(status.getFilteringProgress() + 1);
-                    statusService.saveOrUpdateStatus(status);
-
-                } catch (Exception e) {
-                    log.info(e.toString());
-                    element.setValidKeyword("오류 발생");
-                    element.setKeywordList("오류 발생");
-                    backupService.updateBackup(element);
+            //강제종료 시그널
+            if (workChunkAggregator.isKilled(workId) || work.getStatusCode() == WORK_CODE_IN_KILL) {
+                if (status != null) {
+                    statusService.deleteStatus(status);
                 }
+                log.info("강제종료 시그널");
+                return;
+            }
 
+            //status 가 없으면 결과 엑셀을 만들 수 없으므로 실패 처리 (진행중으로 남지 않도록)
+            if (status == null) {
+                log.error("workId {} status 없음, 실패 처리", workId);
+                work.setStatusCode(WORK_CODE_IN_FAIL);
+                work.setEndTime(new Date());
+                workService.updateWork(work);
+                return;
             }
+
+            String resultCode = workChunkAggregator.isKiprisExceeded(workId) ? "사용정지" : "";
+            makeResultAndFinish(status, work, resultCode);
+        } finally {
+            workChunkAggregator.clear(workId);
+            workLeaseService.clear(workId);
         }
+    }
+
+    //chunk 가 재시도 한도까지 실패한 work 실패 처리 (처리된 행만으로 결과를 만들지 않음)
+    private void failChunkedWork(int workId) throws Exception {
+        try {
+            Work work = workService.getWorkById(workId);
+            work.setStatusCode(WORK_CODE_IN_FAIL);
+            work.setEndTime(new Date());
+            workService.updateWork(work);
+
+            //종료되면 status 삭제
+            Status status = statusService.getStatusById((long) workId);
+            if (status != null) {
+                Thread.sleep(2000);
+                statusService.deleteStatus(status);
+            }
+        } finally {
+            workChunkAggregator.clear(workId);
+            workLeaseService.clear(workId);
+        }
+    }
+
+    //결과 엑셀 생성 및 work 완료 처리
+    private void makeResultAndFinish(Status status, Work work, String resultCode) throws Exception {
+        int workId = work.getId();
 
         //엑셀 생성중으로 코드 변환
         status.setStatusCode(STATUS_CODE_IN_RUNNING);
@@ -334,23 +463,27 @@ public class WorkMessageListener {
 
         //////////////////////////엑셀 변환///////////////////////////////////////
         //에러 처리 (재시도 3번)
-        String downloadName = "";
-        try {
-            downloadName = keywordService.makeResultExcel("result", status, workId);
-        } catch (Exception e) {
-            log.info(e.getMessage());
-            status.setExcelConvertAttempt(status.getExcelConvertAttempt() + 1);
-            statusService.saveOrUpdateStatus(status);
-            if (status.getExcelConvertAttempt() == STATUS_CODE_IN_RUNNING) {//종료 시점
-                work.setStatusCode(WORK_CODE_IN_FAIL);
-                work.setEndTime(new Date());
-                workService.updateWork(work);
+        String downloadName;
+        while (true) {
+            try {
+                downloadName = keywordService.makeResultExcel("result", status, workId);
+                break;
+            } catch (Exception e) {
+                log.info(e.getMessage());
+                status.setExcelConvertAttempt(status.getExcelConvertAttempt() + 1);
+                statusService.saveOrUpdateStatus(status);
+                if (status.getExcelConvertAttempt() == STATUS_CODE_IN_RUNNING) {//종료 시점
+                    work.setStatusCode(WORK_CODE_IN_FAIL);
+                    work.setEndTime(new Date());
+                    workService.updateWork(work);
 
-                //종료되면 status 삭제
-                Thread.sleep(2000);
-                statusService.deleteStatus(status);
+                    //종료되면 status 삭제
+                    Thread.sleep(2000);
+                    statusService.deleteStatus(status);
+                    return;
+                }
+                Thread.sleep(EXCEL_RETRY_INTERVAL_MS);
             }
-            throw new Exception();
         }
 
         //////////////////////////최종 작업///////////////////////////////////////
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -16,6 +17,12 @@ public class ProduceService {
     @Value("${spring.rabbitmq.topic-exchange-name}")
     private String TOPIC_EXCHANGE_NAME;
 
+    //work 메세지 routing key (RabbitMQConfig.binding)
+    private static final String WORK_ROUTING_KEY = "foo.bar.baz";
+
+    //chunk 메세지 routing key (RabbitMQConfig.chunkBinding)
+    public static final String CHUNK_ROUTING_KEY = "keyword.chunk";
+
     private final RabbitTemplate rabbitTemplate;
 
     //큐에 파일 작업 전송
@@ -30,11 +37,42 @@ public class ProduceService {
             queueObject.put("useKipris",useKipris);
 
             log.info("메세지 전송 직전");
-            rabbitTemplate.convertAndSend(TOPIC_EXCHANGE_NAME, "foo.bar.baz", queueObject);
+            sendWorkToQueue(queueObject);
             log.info("메세지 전송 직후");
             log.info("전송 완료");
         } catch (Exception e) {
             log.error("서버오류!!!", e);
         }
     }
+
+    //큐에 work 메세지 전송 (lease 만료된 work 재전송에도 사용)
+    public void sendWorkToQueue(Map<String, Object> work) {
+        rabbitTemplate.convertAndSend(TOPIC_EXCHANGE_NAME, WORK_ROUTING_KEY, work);
+    }
+
+    //work chunk 메세지 생성 (excel_index 범위, 양끝 포함)
+    //원장을 읽는 중에 전송하므로 전체 chunk 수는 포함하지 않음 (WorkChunkAggregator.seal)
+    public static HashMap<String, Object> chunkMessage(int workId, String generation, int chunkIndex,
+                                                       int excelIndexFrom, int excelIndexTo,
+                                                       int sellerCountMin, int sellerCountMax,
+                                                       int searchCount, String useKipris) {
+        HashMap<String, Object> queueObject = new HashMap<>();
+        queueObject.put("workId", workId);
+        //원장 읽기마다 새로 발급 (원장을 다시 읽으면 이전 chunk 는 버려짐)
+        queueObject.put("generation", generation);
+        queueObject.put("chunkIndex", chunkIndex);
+        queueObject.put("excelIndexFrom", excelIndexFrom);
+        queueObject.put("excelIndexTo", excelIndexTo);
+        queueObject.put("sellerCountMin", sellerCountMin);
+        queueObject.put("sellerCountMax", sellerCountMax);
+        queueObject.put("searchCount", searchCount);
+        queueObject.put("useKipris", useKipris);
+        return queueObject;
+    }
+
+    //큐에 work chunk 전송
+    //전송 실패시 work 가 완료되지 않으므로 예외를 그대로 던진다
+    public void sendChunkToQueue(Map<String, Object> chunk) {
+        rabbitTemplate.convertAndSend(TOPIC_EXCHANGE_NAME, CHUNK_ROUTING_KEY, chunk);
+    }
 }
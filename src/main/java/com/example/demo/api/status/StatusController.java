@@ -2,6 +2,7 @@ package com.example.demo.api.status;
 
 
 import com.example.demo.api.keyword.work.Work;
+import com.example.demo.api.keyword.work.WorkCancellationRegistry;
 import com.example.demo.api.keyword.work.WorkService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,7 @@ public class StatusController {
 
     private final StatusService statusService;
     private final WorkService workService;
+    private final WorkCancellationRegistry workCancellationRegistry;
 
     //status 생성
     @PostMapping("/")
@@ -66,6 +68,9 @@ public class StatusController {
         work.setStatusCode(-9);
         workService.updateWork(work);
 
+        //처리중인 노드에 즉시 전달
+        workCancellationRegistry.publishCancel((int)id);
+
         Long updatedId = statusService.saveOrUpdateStatus(status);
         return ResponseEntity.ok(updatedId);
     }
@@ -0,0 +1,67 @@
+package com.example.demo.api.status;
+
+/**
+ * status progress 갱신 모음 (단일 스레드에서 사용)
+ * progress 증가분을 메모리에 모았다가 일정 시간 또는 건수마다 redis hash 필드 증가(HINCRBY)로 반영한다.
+ * 전달받은 Status 객체의 progress 도 함께 증가시키므로 이후 전체 저장시에도 값이 맞는다.
+ * 단계가 끝나면 반드시 flush() 를 호출해야 한다.
+ */
+public class StatusProgressReporter {
+
+    public enum Field {
+        FILTERING("filteringProgress"),
+        EXCEL("excelProgress");
+
+        private final String fieldName;
+
+        Field(String fieldName) {
+            this.fieldName = fieldName;
+        }
+    }
+
+    private final StatusService statusService;
+    private final Status status;
+    private final Field field;
+    private final int flushRows;
+    private final long flushIntervalMs;
+
+    private int delta;
+    private long lastFlushedAt = System.currentTimeMillis();
+
+    StatusProgressReporter(StatusService statusService, Status status, Field field, int flushRows, long flushIntervalMs) {
+        this.statusService = statusService;
+        this.status = status;
+        this.field = field;
+        this.flushRows = flushRows;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    //progress 1 증가
+    public void increment() {
+        if (field == Field.FILTERING) {
+            status.setFilteringProgress(status.getFilteringProgress() + 1);
+        } else {
+            status.setExcelProgress(status.getExcelProgress() + 1);
+        }
+        delta++;
+        if (delta >= flushRows) {
+            flush();
+        } else {
+            flushIfDue();
+        }
+    }
+
+    public void flushIfDue() {
+        if (delta > 0 && System.currentTimeMillis() - lastFlushedAt >= flushIntervalMs) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (delta > 0) {
+            statusService.incrementProgress(status.getId(), field.fieldName, delta);
+            delta = 0;
+        }
+        lastFlushedAt = System.currentTimeMillis();
+    }
+}
@@ -1,17 +1,34 @@
 package com.example.demo.api.status;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StatusService {
 
+    private static final RedisScript<Long> INCREMENT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/status-increment.lua"), Long.class);
+
     private final StatusRepository statusRepository;
 
+    private final StringRedisTemplate redisTemplate;
+
+    //progress 반영 주기 (시간, 건수)
+    @Value("${keyword-service.status.progress-flush-interval-ms:1000}")
+    private long PROGRESS_FLUSH_INTERVAL_MS;
+    @Value("${keyword-service.status.progress-flush-rows:100}")
+    private int PROGRESS_FLUSH_ROWS;
+
     //status 생성
     @Transactional
     public Long saveOrUpdateStatus(Status status) throws Exception{
@@ -29,6 +46,26 @@ public class StatusService {
         return statusRepository.findAll();
     }
 
+    //progress 모아서 반영하는 reporter 생성
+    public StatusProgressReporter newProgressReporter(Status status, StatusProgressReporter.Field field){
+        return new StatusProgressReporter(this, status, field, PROGRESS_FLUSH_ROWS, PROGRESS_FLUSH_INTERVAL_MS);
+    }
+
+    //status hash 의 progress 필드만 증가 (전체 객체 저장 x)
+    public void incrementProgress(Long id, String field, int delta){
+        try {
+            redisTemplate.execute(INCREMENT_SCRIPT, List.of("status:" + id), field, String.valueOf(delta));
+        } catch (Exception e) {
+            log.warn("status progress 반영 실패 : {}", e.getMessage());
+        }
+    }
+
+    //필터링/엑셀 작업 총량 증가 (원장을 읽는 중 chunk 를 전송할 때마다)
+    public void incrementTotal(Long id, int delta){
+        incrementProgress(id, "filteringTotal", delta);
+        incrementProgress(id, "excelTotal", delta);
+    }
+
     @Transactional
     public void deleteStatus(Status status) throws Exception{
         if (!statusRepository.existsById(status.getId())) {
@@ -0,0 +1,55 @@
+package com.example.demo.common.cancel;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * 작업 취소 토큰
+ * 취소 여부는 메모리 플래그라 I/O 없이 확인할 수 있고,
+ * 취소되는 순간 등록된 진행중 요청(Future)을 모두 중단시킨다.
+ * 작업 스레드에 bind 해두면 ApiHttpClient 가 요청을 자동으로 등록한다.
+ */
+public class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean cancelled;
+    private final Set<Future<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        inFlight.forEach(future -> future.cancel(true));
+    }
+
+    //진행중 요청 등록 (이미 취소된 경우 바로 중단)
+    public <T extends Future<?>> T track(T future) {
+        inFlight.add(future);
+        if (cancelled) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    public void untrack(Future<?> future) {
+        inFlight.remove(future);
+    }
+
+    //현재 스레드에 토큰 지정
+    public void bindToCurrentThread() {
+        CURRENT.set(this);
+    }
+
+    public static void unbindCurrentThread() {
+        CURRENT.remove();
+    }
+
+    //현재 스레드의 토큰. 없으면 null
+    public static CancellationToken current() {
+        return CURRENT.get();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.common.config;
 
+import com.example.demo.api.queue.producer.ProduceService;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
@@ -23,6 +24,9 @@ public class RabbitMQConfig {
     @Value("${spring.rabbitmq.queue-name}")
     private String QUEUE_NAME;
 
+    @Value("${spring.rabbitmq.chunk-queue-name:keyword-chunk}")
+    private String CHUNK_QUEUE_NAME;
+
     @Value("${spring.rabbitmq.topic-exchange-name}")
     private String TOPIC_EXCHANGE_NAME;
 
@@ -33,11 +37,25 @@ public class RabbitMQConfig {
     @Value("${spring.rabbitmq.host}")
     private String HOSTANME;
 
+    //노드별 consumer 수 (work chunk 를 동시에 처리할 수 있는 수)
+    @Value("${spring.rabbitmq.listener.concurrency:2}")
+    private int CONCURRENCY;
+    @Value("${spring.rabbitmq.listener.max-concurrency:4}")
+    private int MAX_CONCURRENCY;
+    //consumer 당 미리 받아둘 메세지 수 (chunk 하나가 오래 걸리므로 1 권장 - 다른 노드에 분배되도록)
+    @Value("${spring.rabbitmq.listener.prefetch:1}")
+    private int PREFETCH;
+
     @Bean
     Queue queue(){
         return new Queue(QUEUE_NAME,false);
     }
 
+    @Bean
+    Queue chunkQueue(){
+        return new Queue(CHUNK_QUEUE_NAME,false);
+    }
+
     @Bean
     TopicExchange exchange() {
         return new TopicExchange(TOPIC_EXCHANGE_NAME);
@@ -51,6 +69,9 @@ public class RabbitMQConfig {
         factory.setDefaultRequeueRejected(false);//무한 requeue 방지
         factory.setMessageConverter(messageConverter());
         factory.setChannelTransacted(true);
+        factory.setConcurrentConsumers(CONCURRENCY);
+        factory.setMaxConcurrentConsumers(Math.max(CONCURRENCY, MAX_CONCURRENCY));
+        factory.setPrefetchCount(PREFETCH);
 
         factory.setAdviceChain(RetryInterceptorBuilder
                 .stateless()
@@ -65,6 +86,11 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(queue).to(exchange).with("foo.bar.#");
     }
 
+    @Bean
+    Binding chunkBinding() {
+        return BindingBuilder.bind(chunkQueue()).to(exchange()).with(ProduceService.CHUNK_ROUTING_KEY + ".#");
+    }
+
     @Bean
     RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
@@ -0,0 +1,27 @@
+package com.example.demo.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * @Scheduled 작업 스케줄러 설정
+ * 기본 스케줄러는 스레드가 하나라서 오래 걸리는 작업(인기검색어 수집, 키워드 수 갱신, 상표 인덱스 재적재)이
+ * 도는 동안 lease 회수, 강제종료 동기화 같은 짧은 주기 작업이 밀린다.
+ * 같은 작업끼리는 겹쳐 실행되지 않는다. (fixedDelay/cron)
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Value("${keyword-service.scheduling.pool-size:4}")
+    private int POOL_SIZE;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(POOL_SIZE);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+}
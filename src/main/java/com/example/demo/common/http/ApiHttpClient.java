@@ -0,0 +1,92 @@
+package com.example.demo.common.http;
+
+import com.example.demo.common.cancel.CancellationToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+/**
+ * 외부 api 공용 http client
+ * 하나의 HttpClient 를 공유하여 keep-alive 연결을 재사용하고 가능한 경우 HTTP/2 로 통신한다.
+ * 응답 본문은 문자열로 합치지 않고 InputStream 그대로 파서에 넘긴다.
+ * (상태코드와 상관없이 본문을 반환 - 에러 응답도 파서에서 처리)
+ */
+@Slf4j
+@Component
+public class ApiHttpClient {
+
+    private final HttpClient httpClient;
+
+    //host 별 응답 대기 시간
+    private final Map<String, Duration> requestTimeouts;
+    private final Duration defaultRequestTimeout;
+
+    public ApiHttpClient(@Value("${keyword-service.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                         @Value("${keyword-service.http.timeout.default-ms:10000}") long defaultTimeoutMs,
+                         @Value("${keyword-service.http.timeout.naver-openapi-ms:5000}") long naverOpenApiTimeoutMs,
+                         @Value("${keyword-service.http.timeout.naver-search-ad-ms:5000}") long naverSearchAdTimeoutMs,
+                         @Value("${keyword-service.http.timeout.kipris-ms:10000}") long kiprisTimeoutMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newCachedThreadPool(new CustomizableThreadFactory("api-http-")))
+                .build();
+        this.defaultRequestTimeout = Duration.ofMillis(defaultTimeoutMs);
+        this.requestTimeouts = Map.of(
+                "openapi.naver.com", Duration.ofMillis(naverOpenApiTimeoutMs),
+                "api.naver.com", Duration.ofMillis(naverSearchAdTimeoutMs),
+                "plus.kipris.or.kr", Duration.ofMillis(kiprisTimeoutMs));
+    }
+
+    //GET 요청 (동기)
+    //현재 스레드에 취소 토큰이 있으면 토큰이 취소되는 즉시 요청을 중단한다
+    public InputStream get(String url, Map<String, String> headers) throws IOException, InterruptedException {
+        CancellationToken token = CancellationToken.current();
+        if (token == null) {
+            return httpClient.send(buildGet(url, headers), HttpResponse.BodyHandlers.ofInputStream()).body();
+        }
+
+        CompletableFuture<HttpResponse<InputStream>> future =
+                token.track(httpClient.sendAsync(buildGet(url, headers), HttpResponse.BodyHandlers.ofInputStream()));
+        try {
+            return future.get().body();
+        } catch (CancellationException e) {
+            throw new IOException("작업 취소로 요청 중단 : " + url, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            token.untrack(future);
+        }
+    }
+
+    private HttpRequest buildGet(String url, Map<String, String> headers) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeouts.getOrDefault(uri.getHost(), defaultRequestTimeout))
+                .GET();
+        //평문 http 는 h2c upgrade 를 지원하지 않는 서버가 있어 HTTP/1.1 keep-alive 로 통신
+        if ("http".equals(uri.getScheme())) {
+            builder.version(HttpClient.Version.HTTP_1_1);
+        }
+        headers.forEach(builder::header);
+        return builder.build();
+    }
+}
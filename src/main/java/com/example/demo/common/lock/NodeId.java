@@ -0,0 +1,21 @@
+package com.example.demo.common.lock;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+/**
+ * 이 노드(프로세스)의 id
+ * redis lock/lease 의 소유 노드 구분용이며 재시작시 바뀐다.
+ */
+public final class NodeId {
+
+    private static final String VALUE =
+            ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+    private NodeId() {
+    }
+
+    public static String get() {
+        return VALUE;
+    }
+}
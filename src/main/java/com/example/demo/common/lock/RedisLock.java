@@ -0,0 +1,42 @@
+package com.example.demo.common.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * redis key 하나로 여러 노드 중 한 노드만 실행하게 하는 lock
+ * 값은 소유 노드 id(NodeId)이고, 연장/반환은 소유 노드가 같은 경우만 수행한다.
+ * 노드가 죽어도 ttl 이 지나면 풀린다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisLock {
+
+    private static final RedisScript<Long> RENEW_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lock-renew.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lock-release.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    //다른 노드가 갖고 있으면 false
+    public boolean tryAcquire(String key, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, NodeId.get(), ttl));
+    }
+
+    //ttl 연장. 만료되어 다른 노드로 넘어갔으면 false
+    public boolean renew(String key, Duration ttl) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), NodeId.get(), String.valueOf(ttl.toMillis()));
+        return renewed != null && renewed == 1;
+    }
+
+    public void release(String key) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key), NodeId.get());
+    }
+}
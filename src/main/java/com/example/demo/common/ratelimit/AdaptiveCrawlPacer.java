@@ -0,0 +1,145 @@
+package com.example.demo.common.ratelimit;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 크롤링 호출 간격 조절 (AIMD) + circuit breaker
+ * 차단이 없으면 호출 속도를 조금씩 올리고(additive increase), 차단되면 크게 낮춘다(multiplicative decrease).
+ * 차단이 연속 failureThreshold 번이면 OPEN 으로 바꿔 일정 시간 모든 호출을 멈추고,
+ * 시간이 지나면 HALF_OPEN 에서 호출 하나(probe)만 보내 성공하면 CLOSED, 다시 차단되면 더 길게 OPEN 한다.
+ * 한 노드의 모든 스레드가 같은 상태를 공유한다. (thread-safe)
+ */
+final class AdaptiveCrawlPacer {
+
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final double minRate;
+    private final double maxRate;
+    private final double increaseStep;
+    private final double decreaseFactor;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long maxOpenMillis;
+    private final long probeTimeoutMillis;
+    private final LongSupplier clock;
+
+    private double rate;//현재 초당 호출 수
+    private State state = State.CLOSED;
+    private int consecutiveBlocks;
+    private long currentOpenMillis;
+    private long openUntil;
+    private long probeStartedAt = -1;//HALF_OPEN 에서 진행중인 probe 시작 시각 (없으면 -1)
+    private long nextSlotAt;//CLOSED 에서 다음 호출 가능 시각
+
+    AdaptiveCrawlPacer(double initialRate, double minRate, double maxRate, double increaseStep, double decreaseFactor,
+                       int failureThreshold, long openMillis, long maxOpenMillis, long probeTimeoutMillis,
+                       LongSupplier clock) {
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.increaseStep = increaseStep;
+        this.decreaseFactor = decreaseFactor;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.maxOpenMillis = maxOpenMillis;
+        this.probeTimeoutMillis = probeTimeoutMillis;
+        this.clock = clock;
+        this.rate = Math.max(minRate, Math.min(maxRate, initialRate));
+        this.currentOpenMillis = openMillis;
+    }
+
+    //호출 가능하면 0, 아니면 기다려야 하는 시간(ms)
+    synchronized long tryAcquire() {
+        long now = clock.getAsLong();
+        if (state == State.OPEN) {
+            if (now < openUntil) {
+                return openUntil - now;
+            }
+            state = State.HALF_OPEN;
+            probeStartedAt = -1;
+        }
+
+        if (state == State.HALF_OPEN) {
+            //probe 결과가 오기 전에는 대기 (probeTimeout 이 지나면 다른 호출이 probe)
+            if (probeStartedAt >= 0 && now - probeStartedAt < probeTimeoutMillis) {
+                return probeStartedAt + probeTimeoutMillis - now;
+            }
+            probeStartedAt = now;
+            return 0;
+        }
+
+        if (now < nextSlotAt) {
+            return nextSlotAt - now;
+        }
+        nextSlotAt = now + interval();
+        return 0;
+    }
+
+    //정상 응답
+    synchronized void onSuccess() {
+        if (state == State.OPEN) {
+            return;
+        }
+        consecutiveBlocks = 0;
+        if (state == State.HALF_OPEN) {
+            //probe 성공 : 낮춘 속도에서 다시 시작
+            state = State.CLOSED;
+            probeStartedAt = -1;
+            currentOpenMillis = openMillis;
+            return;
+        }
+        rate = Math.min(maxRate, rate + increaseStep);
+    }
+
+    /**
+     * 차단 응답
+     * @return OPEN 이면 남은 중지 시간(ms), 아니면 0
+     */
+    synchronized long onBlocked() {
+        long now = clock.getAsLong();
+        rate = Math.max(minRate, rate * decreaseFactor);
+        consecutiveBlocks++;
+        nextSlotAt = Math.max(nextSlotAt, now + interval());
+
+        if (state == State.HALF_OPEN) {
+            //probe 실패 : 더 길게 중지
+            currentOpenMillis = Math.min(maxOpenMillis, currentOpenMillis * 2);
+            open(now);
+        } else if (state == State.CLOSED && consecutiveBlocks >= failureThreshold) {
+            open(now);
+        }
+        return state == State.OPEN ? Math.max(0, openUntil - now) : 0;
+    }
+
+    //차단 여부를 알 수 없는 실패 (네트워크 오류 등). 속도는 그대로 두고 probe 만 반환
+    synchronized void onError() {
+        if (state == State.HALF_OPEN) {
+            probeStartedAt = -1;
+        }
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openUntil = now + currentOpenMillis;
+        probeStartedAt = -1;
+    }
+
+    private long interval() {
+        return (long) Math.ceil(1000 / rate);
+    }
+
+    synchronized double rate() {
+        return rate;
+    }
+
+    synchronized State state() {
+        //OPEN 시간이 지났으면 다음 호출이 probe
+        if (state == State.OPEN && clock.getAsLong() >= openUntil) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.common.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 네이버 크롤링 호출 관리
+ * 모든 크롤링 경로가 같은 AdaptiveCrawlPacer 를 공유하므로 한 호출이 차단되면 노드의 모든 스레드가 함께 느려진다.
+ * 노드 사이 호출 한도(최대 속도)는 기존 naver-crawl rate limiter 가 맡고,
+ * 차단시에는 그 limiter 의 backoff 로 다른 노드의 크롤링도 멈춘다.
+ *
+ * 사용 : acquire() 후 결과에 따라 onSuccess / onBlocked / onError 중 하나를 반드시 호출
+ * 현재 속도와 circuit 상태는 keyword.crawl.rate, keyword.crawl.circuit(0 CLOSED, 1 HALF_OPEN, 2 OPEN) gauge 로 확인할 수 있다.
+ */
+@Slf4j
+@Component
+public class CrawlGovernor {
+
+    private final RateLimiter crawlLimiter;
+    private final AdaptiveCrawlPacer pacer;
+    //circuit 이 열리지 않은 차단에도 모든 노드를 멈추는 시간
+    private final long blockPauseMillis;
+
+    private final Counter blocked;
+
+    public CrawlGovernor(RateLimiterRegistry rateLimiterRegistry, MeterRegistry meterRegistry,
+                         @Value("${keyword-service.crawl.min-rate:0.1}") double minRate,
+                         @Value("${keyword-service.crawl.increase-step:0.05}") double increaseStep,
+                         @Value("${keyword-service.crawl.decrease-factor:0.5}") double decreaseFactor,
+                         @Value("${keyword-service.crawl.failure-threshold:3}") int failureThreshold,
+                         @Value("${keyword-service.crawl.open-ms:30000}") long openMillis,
+                         @Value("${keyword-service.crawl.max-open-ms:600000}") long maxOpenMillis,
+                         @Value("${keyword-service.crawl.probe-timeout-ms:30000}") long probeTimeoutMillis,
+                         @Value("${keyword-service.crawl.block-pause-ms:3000}") long blockPauseMillis) {
+        this.crawlLimiter = rateLimiterRegistry.get(RateLimiterRegistry.NAVER_CRAWL);
+        //최대 속도는 노드 공용 limiter 의 허용량
+        double maxRate = crawlLimiter.getPermitsPerSecond();
+        this.pacer = new AdaptiveCrawlPacer(maxRate, Math.min(minRate, maxRate), maxRate, increaseStep, decreaseFactor,
+                failureThreshold, openMillis, maxOpenMillis, probeTimeoutMillis, System::currentTimeMillis);
+        this.blockPauseMillis = blockPauseMillis;
+
+        this.blocked = meterRegistry.counter("keyword.crawl.blocked");
+        Gauge.builder("keyword.crawl.rate", pacer, AdaptiveCrawlPacer::rate)
+                .description("현재 크롤링 초당 호출 수")
+                .register(meterRegistry);
+        Gauge.builder("keyword.crawl.circuit", pacer, p -> p.state().ordinal())
+                .description("크롤링 circuit 상태")
+                .register(meterRegistry);
+    }
+
+    //호출 가능할 때까지 대기 (circuit OPEN 이면 닫힐 때까지, HALF_OPEN 이면 probe 결과까지)
+    public void acquire() throws InterruptedException {
+        long waitMillis;
+        while ((waitMillis = pacer.tryAcquire()) > 0) {
+            Thread.sleep(waitMillis);
+        }
+        crawlLimiter.acquire();
+    }
+
+    public void onSuccess() {
+        pacer.onSuccess();
+    }
+
+    //차단 페이지 응답
+    public void onBlocked() {
+        blocked.increment();
+        long openMillis = pacer.onBlocked();
+        if (openMillis > 0) {
+            log.warn("크롤링 차단 반복으로 {} ms 동안 중지 (초당 {} 회로 재시작)", openMillis, pacer.rate());
+        }
+        crawlLimiter.backoff(Math.max(blockPauseMillis, openMillis));
+    }
+
+    //차단 여부를 알 수 없는 실패
+    public void onError() {
+        pacer.onError();
+    }
+}
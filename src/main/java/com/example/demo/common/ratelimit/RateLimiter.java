@@ -0,0 +1,99 @@
+package com.example.demo.common.ratelimit;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 외부 api 한 개(+인증정보)에 대한 토큰 버킷
+ * 버킷 상태는 redis 에 저장되어 모든 consumer 노드가 같은 호출 한도를 나눠쓴다.
+ * redis 에 접근할 수 없는 경우에는 노드 내부 버킷으로 대신 제한한다.
+ */
+@Slf4j
+public class RateLimiter {
+
+    @Getter
+    private final String name;
+    private final String key;
+    @Getter
+    private final double permitsPerSecond;
+    private final int capacity;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<Long> acquireScript;
+    private final RedisScript<Long> backoffScript;
+    private final Timer waitTimer;
+
+    //redis 장애시 사용하는 노드 내부 버킷
+    private double localTokens;
+    private long localRefilledAt = System.currentTimeMillis();
+    private long localBlockedUntil;
+
+    RateLimiter(String name, double permitsPerSecond, int capacity, StringRedisTemplate redisTemplate,
+                RedisScript<Long> acquireScript, RedisScript<Long> backoffScript, Timer waitTimer) {
+        this.name = name;
+        this.key = "rate-limit:" + name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = capacity;
+        this.redisTemplate = redisTemplate;
+        this.acquireScript = acquireScript;
+        this.backoffScript = backoffScript;
+        this.waitTimer = waitTimer;
+        this.localTokens = capacity;
+    }
+
+    //허용량이 생길때까지 대기 후 호출권 1개 획득
+    public void acquire() throws InterruptedException {
+        long startedAt = System.nanoTime();
+        long waitMillis;
+        while ((waitMillis = tryAcquire()) > 0) {
+            Thread.sleep(waitMillis);
+        }
+        waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    //차단 감지시 모든 노드의 호출을 일정 시간 멈춤
+    public void backoff(long millis) {
+        try {
+            redisTemplate.execute(backoffScript, List.of(key), String.valueOf(millis));
+        } catch (Exception e) {
+            log.warn("rate limiter [{}] redis backoff 실패, 노드 내부 버킷 사용 : {}", name, e.getMessage());
+        }
+        synchronized (this) {
+            localBlockedUntil = Math.max(localBlockedUntil, System.currentTimeMillis() + millis);
+        }
+    }
+
+    //획득 성공시 0, 실패시 다음 호출권까지 남은 시간(ms)
+    private long tryAcquire() {
+        try {
+            Long wait = redisTemplate.execute(acquireScript, List.of(key),
+                    String.valueOf(permitsPerSecond), String.valueOf(capacity));
+            if (wait != null) {
+                return wait;
+            }
+        } catch (Exception e) {
+            log.warn("rate limiter [{}] redis 호출 실패, 노드 내부 버킷 사용 : {}", name, e.getMessage());
+        }
+        return tryAcquireLocal();
+    }
+
+    private synchronized long tryAcquireLocal() {
+        long now = System.currentTimeMillis();
+        if (localBlockedUntil > now) {
+            return localBlockedUntil - now;
+        }
+        localTokens = Math.min(capacity, localTokens + (now - localRefilledAt) * permitsPerSecond / 1000);
+        localRefilledAt = now;
+        if (localTokens >= 1) {
+            localTokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - localTokens) * 1000 / permitsPerSecond);
+    }
+}
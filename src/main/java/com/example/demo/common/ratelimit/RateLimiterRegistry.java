@@ -0,0 +1,77 @@
+package com.example.demo.common.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 외부 api 별 rate limiter 관리
+ * 버킷은 api 이름 + 인증정보 단위로 생성되며
+ * 허용량은 keyword-service.rate-limit.{api}.permits-per-second 로 설정한다.
+ * 대기 시간은 keyword.rate-limiter.wait 타이머(actuator metrics)로 확인할 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimiterRegistry {
+
+    public static final String NAVER_SHOP = "naver-shop";
+    public static final String NAVER_SEARCH_AD = "naver-search-ad";
+    public static final String NAVER_CRAWL = "naver-crawl";
+    public static final String KIPRIS = "kipris";
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/rate-limit-acquire.lua"), Long.class);
+    private static final RedisScript<Long> BACKOFF_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/rate-limit-backoff.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Value("${keyword-service.filter.crawling.interval}")
+    private int CRAWLING_INTERVAL;
+
+    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    //api + 인증정보 단위 limiter
+    public RateLimiter get(String api, String credential) {
+        return limiters.computeIfAbsent(api + ":" + credential, name -> create(api, credential, name));
+    }
+
+    //인증정보가 없는 api (크롤링)
+    public RateLimiter get(String api) {
+        return get(api, "default");
+    }
+
+    private RateLimiter create(String api, String credential, String name) {
+        double permitsPerSecond = environment.getProperty(
+                "keyword-service.rate-limit." + api + ".permits-per-second", Double.class, defaultPermitsPerSecond(api));
+        int capacity = environment.getProperty(
+                "keyword-service.rate-limit." + api + ".capacity", Integer.class, 1);
+
+        Timer waitTimer = Timer.builder("keyword.rate-limiter.wait")
+                .description("외부 api 호출권 획득 대기 시간")
+                .tag("api", api)
+                .tag("credential", credential)
+                .register(meterRegistry);
+
+        return new RateLimiter(name, permitsPerSecond, capacity, redisTemplate, ACQUIRE_SCRIPT, BACKOFF_SCRIPT, waitTimer);
+    }
+
+    private double defaultPermitsPerSecond(String api) {
+        return switch (api) {
+            case NAVER_SHOP -> 10;//1초에 검색 10회 제한
+            case NAVER_CRAWL -> 1000.0 / Math.max(CRAWLING_INTERVAL, 1);//기존 크롤링 간격
+            default -> 5;
+        };
+    }
+}
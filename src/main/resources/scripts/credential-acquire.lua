@@ -0,0 +1,22 @@
+-- 사용량이 가장 적은 인증정보 선택 후 사용량 증가
+-- KEYS : 인증정보별 사용량 key, ARGV[1] : 일일 한도, ARGV[2] : key 만료(초)
+-- return : 선택된 인증정보 index(0부터), 모두 한도 초과시 -1
+local quota = tonumber(ARGV[1])
+local best = -1
+local bestUsage = quota
+
+for i, key in ipairs(KEYS) do
+    local usage = tonumber(redis.call('GET', key)) or 0
+    if usage < bestUsage then
+        best = i
+        bestUsage = usage
+    end
+end
+
+if best == -1 then
+    return -1
+end
+
+redis.call('INCR', KEYS[best])
+redis.call('EXPIRE', KEYS[best], tonumber(ARGV[2]))
+return best - 1
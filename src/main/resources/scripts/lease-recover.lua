@@ -0,0 +1,7 @@
+-- 만료된 lease 회수 (여러 노드가 동시에 확인해도 한 노드만 1 을 받음)
+-- KEYS[1] : lease key, KEYS[2] : 처리 시작 기록 hash (chunk 또는 원장 읽기)
+-- ARGV[1] : 처리 시작 기록 field (chunk index 또는 work id)
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+return redis.call('HDEL', KEYS[2], ARGV[1])
@@ -0,0 +1,6 @@
+-- lock 반환 (소유 노드가 같은 경우만)
+-- KEYS[1] : lock key, ARGV[1] : 소유 노드 id
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,6 @@
+-- lock 연장 (소유 노드가 같은 경우만)
+-- KEYS[1] : lock key, ARGV[1] : 소유 노드 id, ARGV[2] : ttl(ms)
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[2]))
+end
+return 0
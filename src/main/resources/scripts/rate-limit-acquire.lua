@@ -0,0 +1,30 @@
+-- 토큰 버킷 호출권 획득
+-- KEYS[1] : 버킷 key, ARGV[1] : 초당 허용량, ARGV[2] : 최대 누적 토큰
+-- return : 획득시 0, 실패시 다음 토큰까지 남은 시간(ms)
+if redis.replicate_commands then redis.replicate_commands() end
+
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts', 'blocked')
+local tokens = tonumber(state[1]) or capacity
+local ts = tonumber(state[2]) or now
+local blocked = tonumber(state[3]) or 0
+
+if blocked > now then
+    return blocked - now
+end
+
+tokens = math.min(capacity, tokens + (now - ts) * rate / 1000)
+local wait = 0
+if tokens >= 1 then
+    tokens = tokens - 1
+else
+    wait = math.ceil((1 - tokens) * 1000 / rate)
+end
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 60000)
+return wait
@@ -0,0 +1,14 @@
+-- 차단 감지시 버킷 전체 호출 중지
+-- KEYS[1] : 버킷 key, ARGV[1] : 중지 시간(ms)
+if redis.replicate_commands then redis.replicate_commands() end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local blockedUntil = now + tonumber(ARGV[1])
+
+local blocked = tonumber(redis.call('HGET', KEYS[1], 'blocked')) or 0
+if blockedUntil > blocked then
+    redis.call('HSET', KEYS[1], 'blocked', blockedUntil)
+end
+redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[1]) + 60000)
+return blockedUntil - now
@@ -0,0 +1,6 @@
+-- status hash 의 progress 필드 증가 (삭제된 status 는 다시 만들지 않음)
+-- KEYS[1] : status key, ARGV[1] : 필드명, ARGV[2] : 증가량
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -1
+end
+return redis.call('HINCRBY', KEYS[1], ARGV[1], tonumber(ARGV[2]))
@@ -0,0 +1,20 @@
+-- work chunk 완료 처리 (같은 chunk 가 중복 완료되어도 한번만 집계)
+-- KEYS[1] : 집계 hash, KEYS[2] : 미완료 chunk hash
+-- ARGV[1] : chunk index, ARGV[2] : 함께 기록할 플래그 필드 ('' 이면 없음), ARGV[3] : chunk 의 generation
+-- 반환 : 1 마지막 chunk, 0 미완료 chunk 남음, -1 이미 완료된 chunk, -2 이전 원장 읽기의 chunk
+if redis.call('HGET', KEYS[1], 'generation') ~= ARGV[3] then
+    return -2
+end
+if redis.call('HDEL', KEYS[2], ARGV[1]) == 0 then
+    return -1
+end
+if ARGV[2] ~= '' then
+    redis.call('HSET', KEYS[1], ARGV[2], '1')
+end
+local done = redis.call('HINCRBY', KEYS[1], 'done', 1)
+-- total 은 원장 읽기가 끝나야 기록됨 (그 전에는 마지막 chunk 가 아님)
+local total = tonumber(redis.call('HGET', KEYS[1], 'total'))
+if total ~= nil and done == total then
+    return 1
+end
+return 0
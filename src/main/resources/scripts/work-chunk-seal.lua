@@ -0,0 +1,10 @@
+-- work chunk 전송 완료 후 전체 chunk 수 확정
+-- 전송 중에 모든 chunk 가 먼저 완료된 경우 확정한 쪽이 마지막 chunk 처리를 맡는다
+-- KEYS[1] : 집계 hash, ARGV[1] : 전체 chunk 수
+-- 반환 : 1 모든 chunk 완료, 0 미완료 chunk 남음
+redis.call('HSET', KEYS[1], 'total', ARGV[1])
+local done = tonumber(redis.call('HGET', KEYS[1], 'done')) or 0
+if done == tonumber(ARGV[1]) then
+    return 1
+end
+return 0
@@ -0,0 +1,86 @@
+package com.example.demo.api.keyword;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쇼핑 검색 응답에서 첫 상품 카테고리 추출 비교
+ * legacy : json-simple 파싱 -> items.toString() -> ObjectMapper 로 다시 파싱 (이전 findStandardKeyword 방식)
+ * streaming : NaverResponseParser
+ *
+ * 실행 : main (IDE 또는 test classpath 로 java 실행)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NaverResponseParserBenchmark {
+
+    private byte[] response;
+
+    @Setup
+    public void setUp() {
+        //display=10 응답과 비슷한 크기
+        StringBuilder json = new StringBuilder("{\"lastBuildDate\":\"Mon, 01 Jan 2024 00:00:00 +0900\",\"total\":52731,\"start\":1,\"display\":10,\"items\":[");
+        for (int i = 0; i < 10; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"title\":\"<b>여성</b> 니트 <b>원피스</b> 롱 루즈핏 ").append(i).append("\",")
+                    .append("\"link\":\"https://search.shopping.naver.com/catalog/").append(1000000 + i).append("\",")
+                    .append("\"image\":\"https://shopping-phinf.pstatic.net/main_").append(i).append(".jpg\",")
+                    .append("\"lprice\":\"").append(19900 + i).append("\",\"hprice\":\"\",")
+                    .append("\"mallName\":\"네이버\",\"productId\":\"").append(80000000000L + i).append("\",\"productType\":\"1\",")
+                    .append("\"brand\":\"\",\"maker\":\"\",")
+                    .append("\"category1\":\"패션의류\",\"category2\":\"여성의류\",\"category3\":\"원피스\",\"category4\":\"\"}");
+        }
+        response = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String streaming() throws Exception {
+        return NaverResponseParser.firstItemCategoryPath(new ByteArrayInputStream(response));
+    }
+
+    @Benchmark
+    public String legacy() throws Exception {
+        JSONObject result = (JSONObject) new JSONParser().parse(
+                new InputStreamReader(new ByteArrayInputStream(response), StandardCharsets.UTF_8));
+        JSONArray items = (JSONArray) result.get("items");
+        List<Map<String, Object>> resultList = new ObjectMapper().readValue(items.toString(),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+        Map<String, Object> first = resultList.get(0);
+        return first.get("category1") + ">" + first.get("category2") + ">" + first.get("category3");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(NaverResponseParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
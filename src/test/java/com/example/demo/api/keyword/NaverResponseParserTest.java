@@ -0,0 +1,72 @@
+package com.example.demo.api.keyword;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class NaverResponseParserTest {
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("첫번째 상품의 카테고리 경로만 읽음")
+    void firstItemCategoryPath() throws IOException {
+        String json = """
+                {"lastBuildDate":"Mon, 01 Jan 2024 00:00:00 +0900","total":1234,"start":1,"display":2,
+                 "items":[
+                   {"title":"<b>원피스</b>","lprice":"10000","category1":"패션의류","category2":"여성의류",
+                    "category3":"원피스","category4":"","tags":["a",{"b":1}]},
+                   {"title":"다른 상품","category1":"생활/건강","category2":"","category3":"","category4":""}
+                 ]}""";
+
+        Assertions.assertEquals("패션의류>여성의류>원피스", NaverResponseParser.firstItemCategoryPath(body(json)));
+    }
+
+    @Test
+    @DisplayName("검색 결과가 없거나 대분류가 없으면 예외")
+    void firstItemCategoryPathWithoutResult() {
+        Assertions.assertThrows(IOException.class,
+                () -> NaverResponseParser.firstItemCategoryPath(body("{\"total\":0,\"items\":[]}")));
+        Assertions.assertThrows(IOException.class,
+                () -> NaverResponseParser.firstItemCategoryPath(body("{\"errorMessage\":\"Rate limit exceeded\"}")));
+        Assertions.assertThrows(IOException.class,
+                () -> NaverResponseParser.firstItemCategoryPath(body("{\"items\":[{\"category1\":\"\"}]}")));
+    }
+
+    @Test
+    @DisplayName("키워드도구 검색수 - '< 10' 은 0, 숫자/문자열 모두 허용")
+    void keywordMetrics() throws IOException {
+        String json = """
+                {"keywordList":[
+                  {"relKeyword":"원피스","monthlyPcQcCnt":12300,"monthlyMobileQcCnt":"45600","compIdx":"높음"},
+                  {"relKeyword":"니트원피스","monthlyPcQcCnt":"< 10","monthlyMobileQcCnt":20,"compIdx":"낮음"}
+                ]}""";
+
+        List<NaverKeywordMetric> metrics = NaverResponseParser.keywordMetrics(body(json));
+
+        Assertions.assertEquals(List.of(
+                new NaverKeywordMetric("원피스", 12300, 45600),
+                new NaverKeywordMetric("니트원피스", 0, 20)), metrics);
+        Assertions.assertEquals(57900, metrics.get(0).monthlyQcCnt());
+    }
+
+    @Test
+    @DisplayName("인기검색어 순위 순 조회, 비정상접근(json 아님)은 예외")
+    void rankKeywords() throws IOException {
+        String json = """
+                {"message":null,"statusCode":200,"returnCode":0,"date":"","datetime":"","range":"2024.01.01. ~ 2024.01.30.",
+                 "ranks":[{"rank":1,"keyword":"원피스","linkId":"원피스"},{"rank":2,"keyword":"니트원피스","linkId":"니트원피스"}]}""";
+
+        Assertions.assertEquals(List.of("원피스", "니트원피스"), NaverResponseParser.rankKeywords(body(json)));
+        Assertions.assertThrows(IOException.class,
+                () -> NaverResponseParser.rankKeywords(body("<html><body>비정상 접근</body></html>")));
+    }
+}
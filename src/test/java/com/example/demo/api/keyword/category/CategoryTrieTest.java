@@ -0,0 +1,42 @@
+package com.example.demo.api.keyword.category;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class CategoryTrieTest {
+
+    private static Category category(String id, String wholeName) {
+        Category category = new Category();
+        category.setId(id);
+        category.setWholeName(wholeName);
+        return category;
+    }
+
+    private final CategoryTrie trie = CategoryTrie.of(List.of(
+            category("1", "패션의류"),
+            category("2", "패션의류>여성의류"),
+            category("3", "패션의류>여성의류>원피스"),
+            category("4", "생활/건강>주방용품")));
+
+    @Test
+    @DisplayName("전체 경로 일치 조회")
+    void findExact() {
+        Assertions.assertEquals(4, trie.size());
+        Assertions.assertEquals("3", trie.findExact("패션의류>여성의류>원피스").getId());
+        Assertions.assertNull(trie.findExact("패션의류>여성의류>니트"));
+        Assertions.assertNull(trie.findExact("생활/건강"));
+    }
+
+    @Test
+    @DisplayName("경로가 없으면 가장 가까운 상위 카테고리 조회")
+    void findLongestMatch() {
+        Assertions.assertEquals("2", trie.findLongestMatch("패션의류>여성의류>니트").getId());
+        Assertions.assertEquals("1", trie.findLongestMatch("패션의류>남성의류>셔츠").getId());
+        Assertions.assertEquals("4", trie.findLongestMatch("생활/건강>주방용품>칼").getId());
+        Assertions.assertNull(trie.findLongestMatch("생활/건강>욕실용품"));
+        Assertions.assertNull(trie.findLongestMatch("디지털/가전"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.api.keyword.extract;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class RandomOrderTest {
+
+    @Test
+    @DisplayName("끝까지 뽑으면 0 ~ size-1 이 한번씩 나옴")
+    void permutation() {
+        RandomOrder order = new RandomOrder(1000, new Random(42));
+
+        Set<Integer> drawn = new HashSet<>();
+        while (order.hasNext()) {
+            int next = order.next();
+            Assertions.assertTrue(next >= 0 && next < 1000);
+            Assertions.assertTrue(drawn.add(next), "중복 : " + next);
+        }
+        Assertions.assertEquals(1000, drawn.size());
+    }
+
+    @Test
+    @DisplayName("같은 seed 는 같은 순서")
+    void sameSeed() {
+        RandomOrder first = new RandomOrder(50, new Random(7));
+        RandomOrder second = new RandomOrder(50, new Random(7));
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(first.next(), second.next());
+        }
+    }
+
+    @Test
+    @DisplayName("후보가 없으면 바로 끝")
+    void empty() {
+        Assertions.assertFalse(new RandomOrder(0, new Random()).hasNext());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.api.keyword.extract;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SpeculationLimitTest {
+
+    @Test
+    @DisplayName("기본 설정(최대 4, 키프리스 5회/초)이면 한 행에서 여러 후보를 동시에 체크")
+    void defaultsAllowParallelChecks() {
+        Assertions.assertEquals(4, ExtractionPipeline.speculationLimit(4, 5));
+    }
+
+    @Test
+    @DisplayName("초당 호출 한도가 설정값보다 작으면 한도까지만")
+    void boundedByLimiter() {
+        Assertions.assertEquals(2, ExtractionPipeline.speculationLimit(4, 1.5));
+        Assertions.assertEquals(1, ExtractionPipeline.speculationLimit(4, 0.2));
+    }
+
+    @Test
+    @DisplayName("설정값이 1 이하면 순차 체크")
+    void sequential() {
+        Assertions.assertEquals(1, ExtractionPipeline.speculationLimit(1, 5));
+        Assertions.assertEquals(1, ExtractionPipeline.speculationLimit(0, 5));
+    }
+}
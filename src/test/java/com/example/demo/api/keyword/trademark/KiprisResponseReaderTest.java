@@ -0,0 +1,59 @@
+package com.example.demo.api.keyword.trademark;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+class KiprisResponseReaderTest {
+
+    private static InputStream body(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("resultCode 와 TotalSearchCount 조회")
+    void read() throws IOException {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <response>
+                  <header><resultCode>00</resultCode><resultMsg>NORMAL SERVICE.</resultMsg></header>
+                  <body><items><TotalSearchCount>3</TotalSearchCount>
+                    <TradeMarkInfo><Title>원피스</Title></TradeMarkInfo>
+                  </items></body>
+                </response>""";
+
+        TrademarkVerdict verdict = KiprisResponseReader.read("원피스", body(xml));
+
+        Assertions.assertEquals("원피스", verdict.keyword());
+        Assertions.assertEquals("00", verdict.resultCode());
+        Assertions.assertEquals(3, verdict.totalSearchCount());
+        Assertions.assertTrue(verdict.registered());
+    }
+
+    @Test
+    @DisplayName("사용량 초과(22)는 TotalSearchCount 없이 반환")
+    void quotaExceeded() throws IOException {
+        String xml = "<response><header><resultCode>22</resultCode></header></response>";
+
+        TrademarkVerdict verdict = KiprisResponseReader.read("원피스", body(xml));
+
+        Assertions.assertTrue(verdict.quotaExceeded());
+        Assertions.assertEquals(-1, verdict.totalSearchCount());
+    }
+
+    @Test
+    @DisplayName("필드가 없거나 잘못된 응답은 예외")
+    void invalidResponse() {
+        Assertions.assertThrows(IOException.class,
+                () -> KiprisResponseReader.read("원피스", body("<response><body/></response>")));
+        Assertions.assertThrows(IOException.class,
+                () -> KiprisResponseReader.read("원피스", body("<response><header><resultCode>00</resultCode></header></response>")));
+        Assertions.assertThrows(IOException.class,
+                () -> KiprisResponseReader.read("원피스", body("<response><resultCode>00")));
+    }
+}
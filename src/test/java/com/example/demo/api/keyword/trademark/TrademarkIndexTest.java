@@ -0,0 +1,67 @@
+package com.example.demo.api.keyword.trademark;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class TrademarkIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("추출 파일로 만든 인덱스에서 정규화된 상표명 조회")
+    void buildAndLookup() throws IOException {
+        Path source = dir.resolve("marks.tsv");
+        Files.writeString(source, """
+                상표명\t출원번호
+                나이키\t4020100000001
+                ＡＤＩＤＡＳ\t4020100000002
+                뉴 발란스\t4020100000003
+                나이키\t4020100000004
+                """, StandardCharsets.UTF_8);
+        Path indexFile = dir.resolve("marks.idx");
+
+        Assertions.assertEquals(3, TrademarkIndex.build(source, indexFile, 0, true, 0.01));
+        TrademarkIndex index = TrademarkIndex.open(indexFile);
+
+        Assertions.assertEquals(3, index.size());
+        Assertions.assertEquals(TrademarkIndex.Lookup.PRESENT, index.lookup(TrademarkIndex.normalize("나이키")));
+        Assertions.assertEquals(TrademarkIndex.Lookup.PRESENT, index.lookup(TrademarkIndex.normalize("adidas")));
+        Assertions.assertEquals(TrademarkIndex.Lookup.PRESENT, index.lookup(TrademarkIndex.normalize("뉴발란스")));
+        Assertions.assertNotEquals(TrademarkIndex.Lookup.PRESENT, index.lookup(TrademarkIndex.normalize("퓨마")));
+        Assertions.assertNotEquals(TrademarkIndex.Lookup.PRESENT, index.lookup(TrademarkIndex.normalize("상표명")));
+    }
+
+    @Test
+    @DisplayName("없는 상표명의 bloom filter 오탐률이 목표 수준")
+    void falsePositiveRate() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            lines.add("상표" + i);
+        }
+        Path source = dir.resolve("marks.txt");
+        Files.write(source, lines, StandardCharsets.UTF_8);
+        Path indexFile = dir.resolve("marks.idx");
+        TrademarkIndex.build(source, indexFile, 0, false, 0.01);
+        TrademarkIndex index = TrademarkIndex.open(indexFile);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 20000; i++) {
+            Assertions.assertEquals(TrademarkIndex.Lookup.PRESENT, index.lookup("상표" + i));
+            if (index.lookup("없는상표" + i) == TrademarkIndex.Lookup.BLOOM_FALSE_POSITIVE) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertTrue(falsePositives < 20000 * 0.03, "오탐 " + falsePositives);
+        Assertions.assertTrue(index.expectedFalsePositiveRate() < 0.02);
+    }
+}
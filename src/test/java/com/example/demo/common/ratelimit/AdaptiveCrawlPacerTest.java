@@ -0,0 +1,102 @@
+package com.example.demo.common.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class AdaptiveCrawlPacerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    //초기 2회/초, 최소 0.5, 최대 4, +0.5, x0.5, 연속 차단 3회에 OPEN 10초(최대 40초), probe 제한 5초
+    private AdaptiveCrawlPacer pacer() {
+        return new AdaptiveCrawlPacer(2, 0.5, 4, 0.5, 0.5, 3, 10_000, 40_000, 5_000, now::get);
+    }
+
+    @Test
+    @DisplayName("성공하면 조금씩 올리고 차단되면 절반으로 낮춤")
+    void aimd() {
+        AdaptiveCrawlPacer pacer = pacer();
+
+        pacer.onSuccess();
+        pacer.onSuccess();
+        Assertions.assertEquals(3, pacer.rate(), 1e-9);
+
+        pacer.onBlocked();
+        Assertions.assertEquals(1.5, pacer.rate(), 1e-9);
+        Assertions.assertEquals(AdaptiveCrawlPacer.State.CLOSED, pacer.state());
+
+        for (int i = 0; i < 20; i++) {
+            pacer.onSuccess();
+        }
+        Assertions.assertEquals(4, pacer.rate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("CLOSED 에서는 현재 속도 간격으로 호출")
+    void interval() {
+        AdaptiveCrawlPacer pacer = pacer();
+
+        Assertions.assertEquals(0, pacer.tryAcquire());
+        Assertions.assertEquals(500, pacer.tryAcquire());
+        now.addAndGet(500);
+        Assertions.assertEquals(0, pacer.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("연속 차단이면 OPEN, 시간이 지나면 probe 하나만 보내고 성공하면 CLOSED")
+    void openHalfOpenClosed() {
+        AdaptiveCrawlPacer pacer = pacer();
+
+        Assertions.assertEquals(0, pacer.onBlocked());
+        Assertions.assertEquals(0, pacer.onBlocked());
+        Assertions.assertEquals(10_000, pacer.onBlocked());
+        Assertions.assertEquals(AdaptiveCrawlPacer.State.OPEN, pacer.state());
+        Assertions.assertEquals(0.5, pacer.rate(), 1e-9);
+        Assertions.assertTrue(pacer.tryAcquire() > 0);
+
+        now.addAndGet(10_000);
+        Assertions.assertEquals(AdaptiveCrawlPacer.State.HALF_OPEN, pacer.state());
+        Assertions.assertEquals(0, pacer.tryAcquire());
+        //probe 결과 전 다른 호출은 대기
+        Assertions.assertEquals(5_000, pacer.tryAcquire());
+
+        pacer.onSuccess();
+        Assertions.assertEquals(AdaptiveCrawlPacer.State.CLOSED, pacer.state());
+        Assertions.assertEquals(0.5, pacer.rate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("probe 가 차단되면 두배로 길게 OPEN")
+    void probeBlocked() {
+        AdaptiveCrawlPacer pacer = pacer();
+        for (int i = 0; i < 3; i++) {
+            pacer.onBlocked();
+        }
+
+        now.addAndGet(10_000);
+        Assertions.assertEquals(0, pacer.tryAcquire());
+        Assertions.assertEquals(20_000, pacer.onBlocked());
+        Assertions.assertEquals(AdaptiveCrawlPacer.State.OPEN, pacer.state());
+    }
+
+    @Test
+    @DisplayName("probe 결과가 오지 않으면 제한 시간 후 다른 호출이 probe")
+    void probeTimeout() {
+        AdaptiveCrawlPacer pacer = pacer();
+        for (int i = 0; i < 3; i++) {
+            pacer.onBlocked();
+        }
+
+        now.addAndGet(10_000);
+        Assertions.assertEquals(0, pacer.tryAcquire());
+        now.addAndGet(5_000);
+        Assertions.assertEquals(0, pacer.tryAcquire());
+
+        //알 수 없는 실패는 probe 만 반환
+        pacer.onError();
+        Assertions.assertEquals(0, pacer.tryAcquire());
+    }
+}